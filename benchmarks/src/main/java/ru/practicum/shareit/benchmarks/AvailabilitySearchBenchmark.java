@@ -0,0 +1,134 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.practicum.shareit.benchmarks.load.DataSeeder;
+import ru.practicum.shareit.benchmarks.load.LoadTestConfig;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск вещей, свободных в интервале, на данных генератора нагрузочного теста: у каждой вещи
+ * {@code bookingsPerItem} бронирований через день, 60% из них одобрены.
+ * {@code searchAvailable} — запрос ItemSearchIndex с антисоединением по ix_bookings_item_end,
+ * {@code searchThenProbe} — текстовый поиск страницами и проверка каждой найденной вещи отдельным запросом.
+ * Окно {@code busy} совпадает со слотом бронирований, {@code gap} попадает между слотами.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilitySearchBenchmark {
+
+    private static final String TEXT = "дрель";
+    private static final int SIZE = 10;
+    private static final String IS_FREE = "select not exists (select 1 from bookings b " +
+            "where b.item_id = :itemId and b.end_date > :start and b.start_date < :end " +
+            "and b.status = 'APPROVED')";
+
+    @Param({"20000"})
+    private int items;
+
+    @Param({"20"})
+    private int bookingsPerItem;
+
+    @Param({"busy", "gap"})
+    private String window;
+
+    @Param({"0", "200"})
+    private int from;
+
+    private SingleConnectionDataSource dataSource;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private ItemSearchIndex searchIndex;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String url = "jdbc:h2:mem:availability-" + System.nanoTime()
+                + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"
+                + ";OPTIMIZE_REUSE_RESULTS=FALSE";
+        Flyway.configure().dataSource(url, "shareit", "shareit").locations("classpath:db/migration").load().migrate();
+        new DataSeeder(url, new LoadTestConfig(1_000, items, items * bookingsPerItem, 0, 0, 1,
+                Duration.ZERO, Duration.ZERO, 0, 0, null, null, null, null, "", Duration.ZERO)).seed();
+
+        dataSource = new SingleConnectionDataSource(url, "shareit", "shareit", true);
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        searchIndex = new ItemSearchIndex(jdbcTemplate);
+        // Слоты генератора начинаются в четные дни от сегодняшнего: послезавтра занято, через три дня свободно.
+        LocalDateTime day = LocalDate.now().atStartOfDay().plusDays("busy".equals(window) ? 2 : 3);
+        start = day.plusHours(1);
+        end = day.plusHours(2);
+
+        List<Long> expected = searchThenProbe();
+        if (expected.size() != SIZE || !expected.equals(searchAvailable())) {
+            throw new IllegalStateException("Результаты поиска расходятся: " + expected + " и " + searchAvailable());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<Long> searchAvailable() {
+        return searchIndex.searchAvailable(TEXT, start, end, from, SIZE);
+    }
+
+    @Benchmark
+    public List<Long> searchThenProbe() {
+        List<Long> found = new ArrayList<>(SIZE);
+        int skipped = 0;
+        int offset = 0;
+        while (found.size() < SIZE) {
+            List<Long> page = searchIndex.search(TEXT, offset, SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            offset += page.size();
+            for (Long itemId : page) {
+                if (!isFree(itemId)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                } else if (found.size() < SIZE) {
+                    found.add(itemId);
+                }
+            }
+        }
+        return found;
+    }
+
+    private boolean isFree(long itemId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_FREE, new MapSqlParameterSource()
+                .addValue("itemId", itemId)
+                .addValue("start", start)
+                .addValue("end", end), Boolean.class));
+    }
+}
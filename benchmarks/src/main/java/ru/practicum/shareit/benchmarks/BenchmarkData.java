@@ -0,0 +1,107 @@
+package ru.practicum.shareit.benchmarks;
+
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.card.ItemCardCodec;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Тестовые данные для бенчмарков: сущности, проекции и карточки вещей в том виде, в каком их отдают репозитории.
+ */
+final class BenchmarkData {
+
+    static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private BenchmarkData() {
+    }
+
+    static User user(long id) {
+        return new User(id, "Пользователь " + id, "user" + id + "@example.com");
+    }
+
+    static Item item(long id, User owner) {
+        return new Item(id, "Дрель " + id, "Простая дрель для ремонта " + id, true, owner, null);
+    }
+
+    static Booking booking(long id, Item item, User booker) {
+        return new Booking(id, NOW.plusDays(id), NOW.plusDays(id + 1), item, booker, BookingStatus.APPROVED);
+    }
+
+    static Comment comment(long id, Item item, User author) {
+        return new Comment(id, "Отличная вещь, всё работает " + id, item, author, NOW.minusDays(id));
+    }
+
+    static List<Item> items(int count) {
+        User owner = user(1);
+        return IntStream.rangeClosed(1, count).mapToObj(id -> item(id, owner)).toList();
+    }
+
+    static List<ItemBookingView> lastAndNext(List<Item> items) {
+        List<ItemBookingView> views = new ArrayList<>();
+        for (Item item : items) {
+            views.add(new BookingView(item.getId(), item.getId() * 2, 2L, "LAST"));
+            views.add(new BookingView(item.getId(), item.getId() * 2 + 1, 3L, "NEXT"));
+        }
+        return views;
+    }
+
+    /**
+     * Последние отзывы вещи в JSON, как их хранит item_cards.
+     */
+    static String latestComments(Item item, int perItem) {
+        List<CommentDto> comments = new ArrayList<>();
+        for (int i = 0; i < perItem; i++) {
+            comments.add(new CommentDto(item.getId() * 100 + i, "Отличная вещь " + i, "Автор " + i,
+                    NOW.minusDays(i)));
+        }
+        return ItemCardCodec.writeComments(comments);
+    }
+
+    /**
+     * Карточка вещи, прочитанная из item_cards: поля вещи и разобранный JSON последних отзывов.
+     */
+    static ItemWithBookingsDto card(Item item, String latestComments, long commentsCount) {
+        ItemWithBookingsDto card = new ItemWithBookingsDto();
+        card.setId(item.getId());
+        card.setOwnerId(item.getOwner().getId());
+        card.setName(item.getName());
+        card.setDescription(item.getDescription());
+        card.setAvailable(item.getAvailable());
+        card.setCommentsCount(commentsCount);
+        card.setComments(ItemCardCodec.readComments(latestComments));
+        return card;
+    }
+
+    record BookingView(Long itemId, Long bookingId, Long bookerId, String kind) implements ItemBookingView {
+
+        @Override
+        public Long getItemId() {
+            return itemId;
+        }
+
+        @Override
+        public Long getBookingId() {
+            return bookingId;
+        }
+
+        @Override
+        public Long getBookerId() {
+            return bookerId;
+        }
+
+        @Override
+        public String getKind() {
+            return kind;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.practicum.shareit.benchmarks.load.DataSeeder;
+import ru.practicum.shareit.benchmarks.load.LoadTestConfig;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск вещей по тексту на {@code items} вещах генератора нагрузочного теста: {@code index} — запрос
+ * ItemSearchIndex с ранжированием и страницей из {@value #SIZE} вещей, {@code like} — прежний
+ * {@code findByText}, который просматривал всю таблицу и возвращал все совпадения.
+ * <p>
+ * Словарь генератора мал: «аккум», «дрель», «проектор» и «детская» есть у 8–20% вещей, и индексу
+ * приходится ранжировать все эти совпадения. Номер вещи («777777») встречается у одной вещи. «ккум»
+ * (середина слова) и «др» (короче трех символов) индекс не находит, и они ищутся по подстроке.
+ * <p>
+ * Миллион вещей с началами слов в индексе не помещается в память по умолчанию, поэтому база лежит
+ * в файле во временном каталоге и переиспользуется следующими запусками с тем же {@code items}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+
+    private static final int SIZE = 10;
+    private static final String LIKE = "select id from items where is_available = true " +
+            "and (lower(name) like :pattern or lower(description) like :pattern)";
+
+    @Param({"1000000"})
+    private int items;
+
+    @Param({"аккум", "ккум", "др", "дрель", "проектор детская", "777777"})
+    private String text;
+
+    private SingleConnectionDataSource dataSource;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private ItemSearchIndex searchIndex;
+    private String pattern;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path directory = Path.of(System.getProperty("java.io.tmpdir"), "shareit-item-search-" + items);
+        Files.createDirectories(directory);
+        String url = "jdbc:h2:file:" + directory.toAbsolutePath().resolve("shareit")
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;OPTIMIZE_REUSE_RESULTS=FALSE";
+        Flyway.configure().dataSource(url, "shareit", "shareit").locations("classpath:db/migration").load().migrate();
+
+        dataSource = new SingleConnectionDataSource(url, "shareit", "shareit", true);
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        Long seeded = jdbcTemplate.queryForObject("select count(*) from items", new MapSqlParameterSource(),
+                Long.class);
+        if (seeded == null || seeded == 0) {
+            new DataSeeder(url, new LoadTestConfig(1_000, items, 0, 0, 0, 1, Duration.ZERO, Duration.ZERO,
+                    0, 0, null, null, null, null, "", Duration.ZERO)).seed();
+        } else if (seeded != items) {
+            throw new IllegalStateException("В " + directory + " уже " + seeded + " вещей, удалите каталог");
+        }
+        searchIndex = new ItemSearchIndex(jdbcTemplate);
+        pattern = "%" + text.toLowerCase(Locale.ROOT) + "%";
+
+        if (index().isEmpty()) {
+            throw new IllegalStateException("Поиск «" + text + "» ничего не нашел");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<Long> index() {
+        return searchIndex.search(text, 0, SIZE);
+    }
+
+    @Benchmark
+    public List<Long> like() {
+        return jdbcTemplate.queryForList(LIKE, new MapSqlParameterSource("pattern", pattern), Long.class);
+    }
+}
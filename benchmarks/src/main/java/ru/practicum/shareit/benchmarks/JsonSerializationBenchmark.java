@@ -0,0 +1,72 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Сериализация ответов списков с настройками ObjectMapper, как в Spring Boot.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<BookingDto> bookings;
+    private List<ItemWithBookingsDto> items;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        User booker = BenchmarkData.user(2);
+        List<Item> ownerItems = BenchmarkData.items(size);
+        bookings = IntStream.range(0, size)
+                .mapToObj(i -> BookingMapper.mapToDto(BenchmarkData.booking(i, ownerItems.get(i), booker)))
+                .toList();
+        items = ownerItems.stream()
+                .map(item -> BenchmarkData.card(item, BenchmarkData.latestComments(item, 3), 3))
+                .toList();
+        ItemMapper.setLastAndNext(items, BenchmarkData.lastAndNext(ownerItems));
+    }
+
+    @Benchmark
+    public byte[] bookingDtoList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] itemWithBookingsDtoList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+}
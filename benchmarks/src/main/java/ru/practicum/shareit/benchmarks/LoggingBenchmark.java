@@ -0,0 +1,128 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.logging.RequestLogSamplingProperties;
+import ru.practicum.shareit.logging.SampledRequestTurboFilter;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Логи одного запроса POST /items так, как их пишет сервер: строка контроллера с DTO, строка сервиса
+ * и сообщения TransactionInterceptor и JpaTransactionManager. Логирование настраивает Spring Boot по
+ * конфигурации, которая поставляется с сервером: logback-spring.xml, application.properties и, для
+ * {@code prod}, application-prod.properties с выборкой запросов. Оба варианта пишут в stdout, как в
+ * контейнере; на время прогона stdout перенаправляется во временный файл.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String ENDPOINT = "/items";
+    private static final String METHOD = "ru.practicum.shareit.item.service.ItemServiceImpl.addNewItem";
+
+    @Param({"default", "prod"})
+    private String profile;
+
+    private PrintStream stdout;
+    private Path logFile;
+    private ConfigurableApplicationContext context;
+    private RequestLogSamplingProperties sampling;
+    private Logger controllerLog;
+    private Logger serviceLog;
+    private Logger transactionLog;
+    private Logger jpaLog;
+    private ItemDto itemDto;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        stdout = System.out;
+        logFile = Files.createTempFile("shareit-logging-", ".log");
+        System.setOut(new PrintStream(new BufferedOutputStream(new FileOutputStream(logFile.toFile())), false,
+                StandardCharsets.UTF_8));
+        SpringApplicationBuilder application = new SpringApplicationBuilder(LoggingOnly.class)
+                .web(WebApplicationType.NONE)
+                .registerShutdownHook(false);
+        if (!"default".equals(profile)) {
+            application.profiles(profile);
+        }
+        context = application.run();
+        sampling = Binder.get(context.getEnvironment())
+                .bind("shareit.logging.sampling", RequestLogSamplingProperties.class)
+                .orElseGet(RequestLogSamplingProperties::new);
+
+        controllerLog = LoggerFactory.getLogger("ru.practicum.shareit.item.ItemController");
+        serviceLog = LoggerFactory.getLogger("ru.practicum.shareit.item.service.ItemServiceImpl");
+        transactionLog = LoggerFactory.getLogger("org.springframework.transaction.interceptor.TransactionInterceptor");
+        jpaLog = LoggerFactory.getLogger("org.springframework.orm.jpa.JpaTransactionManager");
+        itemDto = new ItemDto(null, "Дрель", "Простая дрель", true, null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+        System.out.close();
+        System.setOut(stdout);
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void request() {
+        if (sampling.isEnabled()) {
+            // Решение RequestLogSamplingInterceptor для шаблона пути POST /items.
+            double rate = sampling.getRates().getOrDefault(ENDPOINT, sampling.getDefaultRate());
+            MDC.put(SampledRequestTurboFilter.MDC_KEY,
+                    String.valueOf(ThreadLocalRandom.current().nextDouble() < rate));
+        }
+        long userId = ThreadLocalRandom.current().nextLong(1, 1000);
+        controllerLog.info("/items POST выполнение запроса. userId={}; itemDto = {}", userId, itemDto);
+        transactionLog.trace("Getting transaction for [{}]", METHOD);
+        jpaLog.debug("Creating new transaction with name [{}]: PROPAGATION_REQUIRED,ISOLATION_DEFAULT", METHOD);
+        jpaLog.debug("Opened new EntityManager [SessionImpl({}<open>)] for JPA transaction", userId);
+        serviceLog.info("Обработка запроса на добавление нового предмета пользователем с id = {}", userId);
+        jpaLog.debug("Initiating transaction commit");
+        jpaLog.debug("Committing JPA transaction on EntityManager [SessionImpl({}<open>)]", userId);
+        transactionLog.trace("Completing transaction for [{}]", METHOD);
+        MDC.remove(SampledRequestTurboFilter.MDC_KEY);
+    }
+
+    /**
+     * Пустой контекст: из приложения нужна только инициализация логирования Spring Boot.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class LoggingOnly {
+    }
+}
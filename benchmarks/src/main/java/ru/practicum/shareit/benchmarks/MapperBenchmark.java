@@ -0,0 +1,74 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Мапперы, вызываемые на каждый элемент ответа.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Booking booking;
+    private Item item;
+    private Booking last;
+    private Booking next;
+    private Comment comment;
+
+    @Setup
+    public void setUp() {
+        User owner = BenchmarkData.user(1);
+        User booker = BenchmarkData.user(2);
+        item = BenchmarkData.item(1, owner);
+        booking = BenchmarkData.booking(1, item, booker);
+        last = BenchmarkData.booking(2, item, booker);
+        next = BenchmarkData.booking(3, item, booker);
+        comment = BenchmarkData.comment(1, item, booker);
+    }
+
+    @Benchmark
+    public BookingDto bookingMapToDto() {
+        return BookingMapper.mapToDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto itemMapToItemDto() {
+        return ItemMapper.mapToItemDto(item);
+    }
+
+    @Benchmark
+    public ItemWithBookingsDto itemMapToItemWithBookingsDto() {
+        return ItemMapper.mapToItemWithBookingsDto(item, last, next);
+    }
+
+    @Benchmark
+    public CommentDto commentMapToCommentDto() {
+        return CommentMapper.mapToCommentDto(comment);
+    }
+}
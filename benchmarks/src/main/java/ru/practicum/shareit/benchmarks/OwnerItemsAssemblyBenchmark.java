@@ -0,0 +1,63 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка вещей владельца из карточек (ItemServiceImpl.getUsersItems): разбор JSON последних отзывов,
+ * как при чтении item_cards, и раскладка последнего/следующего бронирования.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OwnerItemsAssemblyBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    @Param({"0", "5"})
+    private int commentsPerItem;
+
+    private List<Item> ownerItems;
+    private List<String> latestComments;
+    private List<ItemBookingView> lastAndNext;
+
+    @Setup
+    public void setUp() {
+        ownerItems = BenchmarkData.items(items);
+        latestComments = ownerItems.stream()
+                .map(item -> BenchmarkData.latestComments(item, commentsPerItem))
+                .toList();
+        lastAndNext = BenchmarkData.lastAndNext(ownerItems);
+    }
+
+    @Benchmark
+    public List<ItemWithBookingsDto> assembleFromCards() {
+        List<ItemWithBookingsDto> cards = new ArrayList<>(ownerItems.size());
+        for (int i = 0; i < ownerItems.size(); i++) {
+            cards.add(BenchmarkData.card(ownerItems.get(i), latestComments.get(i), commentsPerItem));
+        }
+        ItemMapper.setLastAndNext(cards, lastAndNext);
+        return cards;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.model.RequestState;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор параметра state списков бронирований; неизвестное значение идет по пути с исключением.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateParsingBenchmark {
+
+    @Param({"ALL", "waiting", "Rejected"})
+    private String state;
+
+    @Benchmark
+    public RequestState requestStateFrom() {
+        return RequestState.from(state);
+    }
+
+    @Benchmark
+    public Object requestStateFromUnknown() {
+        try {
+            return RequestState.from("UNSUPPORTED");
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
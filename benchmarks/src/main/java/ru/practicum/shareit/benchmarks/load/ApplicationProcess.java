@@ -0,0 +1,70 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring Boot приложение, запущенное отдельным процессом JVM; вывод пишется в файл рядом с отчетом.
+ */
+public class ApplicationProcess implements AutoCloseable {
+
+    private final String name;
+    private final Process process;
+    private final String healthUrl;
+
+    private ApplicationProcess(String name, Process process, String healthUrl) {
+        this.name = name;
+        this.process = process;
+        this.healthUrl = healthUrl;
+    }
+
+    public static ApplicationProcess start(String name, Path jar, int port, Path log, List<String> arguments)
+            throws IOException {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-jar", jar.toString(),
+                "--server.port=" + port, "--logging.level.root=WARN"));
+        command.addAll(arguments);
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new ApplicationProcess(name, process, "http://localhost:" + port + "/actuator/health");
+    }
+
+    public void awaitHealthy(Duration timeout) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " завершился с кодом " + process.exitValue());
+            }
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(healthUrl)).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // приложение еще не слушает порт
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " не запустился за " + timeout.toSeconds() + " с");
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.card.ItemCardRebuilder;
+import ru.practicum.shareit.item.card.ItemCardStore;
+import ru.practicum.shareit.item.search.ItemSearchTokenizer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Заполняет базу H2 детерминированным набором данных: все связи вычисляются по номеру строки,
+ * поэтому сценарий нагрузки восстанавливает владельцев, арендаторов и статусы без запросов к базе.
+ * <p>
+ * Пользователи, запросы, бронирования и отзывы генерируются одним {@code INSERT ... SELECT} по
+ * {@code SYSTEM_RANGE}; вещи вставляются пакетами вместе со строками поискового индекса,
+ * которые строятся тем же {@link ItemSearchTokenizer}, что и в сервере.
+ */
+public class DataSeeder {
+
+    static final String[] NAMES = {"Дрель", "Перфоратор", "Лестница", "Палатка", "Велосипед", "Самокат",
+            "Шуруповерт", "Пила", "Проектор", "Байдарка", "Генератор", "Мангал"};
+    static final String[] ADJECTIVES = {"аккумуляторная", "складная", "туристическая", "профессиональная",
+            "компактная", "мощная", "легкая", "детская"};
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final int CHUNK_SIZE = 100_000;
+    private static final int BOOKING_DAYS = 2;
+
+    private final String jdbcUrl;
+    private final LoadTestConfig config;
+    private final LocalDateTime origin;
+
+    public DataSeeder(String jdbcUrl, LoadTestConfig config) {
+        this.jdbcUrl = jdbcUrl;
+        this.config = config;
+        this.origin = bookingOrigin(config);
+    }
+
+    /**
+     * Начало первого слота бронирований: половина слотов каждой вещи в прошлом, половина в будущем.
+     */
+    static LocalDateTime bookingOrigin(LoadTestConfig config) {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.DAYS)
+                .minusDays((long) config.slotsPerItem() / 2 * BOOKING_DAYS);
+    }
+
+    public void seed() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, "shareit", "shareit")) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("insert into users (id, name, email) select x, 'user' || x, "
+                        + "'user' || x || '@load.test' from system_range(1, " + config.users() + ") as r(x)");
+                statement.execute("insert into requests (id, description, requester_id, created) "
+                        + "select x, 'Нужна вещь #' || x, mod(x, " + config.users() + ") + 1, "
+                        + "dateadd('HOUR', -x, current_timestamp) from system_range(1, " + config.requests() + ") as r(x)");
+                connection.commit();
+            }
+            insertItems(connection);
+            try (Statement statement = connection.createStatement()) {
+                insertInChunks(connection, statement, config.bookings(), "insert into bookings "
+                        + "(id, start_date, end_date, item_id, booker_id, status) "
+                        + "select x, dateadd('DAY', " + BOOKING_DAYS + " * ((x - 1) / " + config.items() + "), "
+                        + "timestamp '" + origin + "'), "
+                        + "dateadd('DAY', " + BOOKING_DAYS + " * ((x - 1) / " + config.items() + ") + 1, "
+                        + "timestamp '" + origin + "'), "
+                        + "mod(x - 1, " + config.items() + ") + 1, mod(x * 7, " + config.users() + ") + 1, "
+                        + "case mod(x, 10) when 6 then 'WAITING' when 7 then 'WAITING' when 8 then 'REJECTED' "
+                        + "when 9 then 'CANCELLED' else 'APPROVED' end ");
+                insertInChunks(connection, statement, config.comments(), "insert into comments "
+                        + "(id, text, item_id, author_id, created) "
+                        + "select x, 'Отзыв #' || x, mod(x - 1, " + config.items() + ") + 1, "
+                        + "mod(x * 7, " + config.users() + ") + 1, dateadd('MINUTE', -x, current_timestamp) ");
+                for (String table : new String[]{"users", "requests", "items", "bookings", "comments"}) {
+                    statement.execute("alter table " + table + " alter column id restart with "
+                            + (count(connection, table) + 1));
+                }
+                connection.commit();
+            }
+            SingleConnectionDataSource dataSource = new SingleConnectionDataSource(connection, true);
+            NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+            new ItemCardRebuilder(jdbcTemplate, new ItemCardStore(jdbcTemplate),
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource))).rebuild();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("analyze");
+            }
+            connection.commit();
+        }
+    }
+
+    private void insertItems(Connection connection) throws SQLException {
+        try (PreparedStatement items = connection.prepareStatement("insert into items "
+                + "(id, name, description, is_available, owner_id, request_id) values (?, ?, ?, ?, ?, ?)");
+             PreparedStatement terms = connection.prepareStatement(
+                     "insert into item_search_terms (term, item_id, weight, available) values (?, ?, ?, ?)")) {
+            for (long id = 1; id <= config.items(); id++) {
+                String name = itemName(id);
+                String description = "Вещь номер " + id + ", " + ADJECTIVES[(int) (id % ADJECTIVES.length)];
+                boolean available = isAvailable(id);
+                items.setLong(1, id);
+                items.setString(2, name);
+                items.setString(3, description);
+                items.setBoolean(4, available);
+                items.setLong(5, ownerOf(id, config));
+                if (id % 20 == 0 && config.requests() > 0) {
+                    items.setLong(6, id / 20 % config.requests() + 1);
+                } else {
+                    items.setNull(6, java.sql.Types.BIGINT);
+                }
+                items.addBatch();
+                for (Map.Entry<String, Integer> term : ItemSearchTokenizer.weightedTerms(name, description).entrySet()) {
+                    terms.setString(1, term.getKey());
+                    terms.setLong(2, id);
+                    terms.setInt(3, term.getValue());
+                    terms.setBoolean(4, available);
+                    terms.addBatch();
+                }
+                if (id % BATCH_SIZE == 0 || id == config.items()) {
+                    items.executeBatch();
+                    terms.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Вставляет строки 1..total порциями с фиксацией после каждой: одна транзакция на миллионы строк
+     * раздувает журнал отката H2.
+     */
+    private static void insertInChunks(Connection connection, Statement statement, long total, String insertSelect)
+            throws SQLException {
+        for (long from = 1; from <= total; from += CHUNK_SIZE) {
+            statement.execute(insertSelect + "from system_range(" + from + ", "
+                    + Math.min(from + CHUNK_SIZE - 1, total) + ") as r(x)");
+            connection.commit();
+        }
+    }
+
+    static String itemName(long itemId) {
+        return NAMES[(int) (itemId % NAMES.length)] + " "
+                + ADJECTIVES[(int) (itemId / NAMES.length % ADJECTIVES.length)];
+    }
+
+    static boolean isAvailable(long itemId) {
+        return itemId % 10 != 0;
+    }
+
+    static long ownerOf(long itemId, LoadTestConfig config) {
+        return (itemId - 1) % config.users() + 1;
+    }
+
+    static long itemOfBooking(long bookingId, LoadTestConfig config) {
+        return (bookingId - 1) % config.items() + 1;
+    }
+
+    static boolean isWaiting(long bookingId) {
+        long status = bookingId % 10;
+        return status == 6 || status == 7;
+    }
+
+    private static long count(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Нагрузка на запущенный гейтвей: каждый из {@code concurrency} виртуальных потоков
+ * в течение заданного времени выполняет запросы к эндпоинтам сценария, выбранным случайно с учетом веса.
+ * <p>
+ * Запуск по уже работающему гейтвею: {@code java -cp benchmarks/target/benchmarks.jar
+ * ru.practicum.shareit.benchmarks.load.HttpLoadDriver http://localhost:8080 400 30}
+ */
+public class HttpLoadDriver {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final HttpClient client;
+    private final String baseUrl;
+
+    public HttpLoadDriver(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        HttpLoadDriver driver = new HttpLoadDriver(baseUrl);
+        List<LoadEndpoint> scenario = driver.prepareScenario();
+        LoadReport report = driver.run(scenario, concurrency, Duration.ofSeconds(durationSeconds));
+        System.out.println(report.format());
+    }
+
+    /**
+     * Создает владельца, арендатора, вещь и бронирование; возвращает GET-эндпоинты по этим данным.
+     */
+    public List<LoadEndpoint> prepareScenario() throws Exception {
+        long suffix = System.nanoTime();
+        long ownerId = createUser("owner" + suffix);
+        long bookerId = createUser("booker" + suffix);
+        long itemId = post("/items", ownerId,
+                "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}");
+        post("/bookings", bookerId, "{\"itemId\":" + itemId + ",\"start\":\"2100-01-01T10:00:00\","
+                + "\"end\":\"2100-01-02T10:00:00\"}");
+        return List.of(
+                new LoadEndpoint("GET /items/{id}", 1, () -> LoadEndpoint.get(baseUrl, "/items/" + itemId, ownerId)),
+                new LoadEndpoint("GET /items", 1, () -> LoadEndpoint.get(baseUrl, "/items", ownerId)),
+                new LoadEndpoint("GET /bookings", 1,
+                        () -> LoadEndpoint.get(baseUrl, "/bookings?state=ALL", bookerId)),
+                new LoadEndpoint("GET /bookings/owner", 1,
+                        () -> LoadEndpoint.get(baseUrl, "/bookings/owner?state=ALL", ownerId)),
+                new LoadEndpoint("GET /items/search", 1,
+                        () -> LoadEndpoint.get(baseUrl, "/items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C", bookerId)));
+    }
+
+    public LoadReport run(List<LoadEndpoint> scenario, int concurrency, Duration duration) throws Exception {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        scenario.forEach(endpoint -> recorders.put(endpoint.name(), new LatencyRecorder()));
+        int[] cumulativeWeights = new int[scenario.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < scenario.size(); i++) {
+            totalWeight += scenario.get(i).weight();
+            cumulativeWeights[i] = totalWeight;
+        }
+        int weightSum = totalWeight;
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        LoadEndpoint endpoint = pick(scenario, cumulativeWeights,
+                                ThreadLocalRandom.current().nextInt(weightSum));
+                        LatencyRecorder recorder = recorders.get(endpoint.name());
+                        long startedAt = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(endpoint.request().get(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            recorder.record(System.nanoTime() - startedAt, response.statusCode() < 400);
+                        } catch (Exception e) {
+                            recorder.record(System.nanoTime() - startedAt, false);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        return new LoadReport(concurrency, duration, recorders);
+    }
+
+    private static LoadEndpoint pick(List<LoadEndpoint> scenario, int[] cumulativeWeights, int roll) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return scenario.get(i);
+            }
+        }
+        return scenario.getLast();
+    }
+
+    private long createUser(String name) throws Exception {
+        return post("/users", null, "{\"name\":\"" + name + "\",\"email\":\"" + name + "@load.test\"}");
+    }
+
+    private long post(String path, Long userId, String json) throws Exception {
+        HttpRequest request = LoadEndpoint.send("POST", baseUrl, path, userId, json);
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = ID.matcher(response.body());
+        if (response.statusCode() >= 400 || !matcher.find()) {
+            throw new IllegalStateException("Не удалось выполнить POST " + path + ": " + response.body());
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.util.Arrays;
+
+/**
+ * Потокобезопасный накопитель задержек одного эндпоинта.
+ */
+public class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    public synchronized void record(long latencyNanos, boolean success) {
+        if (!success) {
+            errors++;
+        }
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    public synchronized int errors() {
+        return errors;
+    }
+
+    /**
+     * Возвращает перцентиль задержки в миллисекундах.
+     */
+    public synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
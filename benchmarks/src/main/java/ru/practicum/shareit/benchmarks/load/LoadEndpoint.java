@@ -0,0 +1,35 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Эндпоинт сценария нагрузки: имя в отчете, относительный вес и фабрика запросов.
+ */
+public record LoadEndpoint(String name, int weight, Supplier<HttpRequest> request) {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    public static HttpRequest get(String baseUrl, String path, long userId) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .timeout(TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    public static HttpRequest send(String method, String baseUrl, String path, Long userId, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .timeout(TIMEOUT)
+                .method(method, json == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(json));
+        if (userId != null) {
+            builder.header("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+public record LoadReport(int concurrency, Duration duration, Map<String, LatencyRecorder> endpoints) {
+
+    public double throughput() {
+        return endpoints.values().stream().mapToInt(LatencyRecorder::count).sum()
+                / (duration.toMillis() / 1000.0);
+    }
+
+    public String format() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "concurrency=%d duration=%ds throughput=%.1f req/s%n",
+                concurrency, duration.toSeconds(), throughput()));
+        report.append(String.format(Locale.ROOT, "%-26s %10s %8s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms"));
+        new TreeMap<>(endpoints).forEach((name, recorder) -> report.append(String.format(Locale.ROOT,
+                "%-26s %10d %8d %10.1f %10.2f %10.2f%n", name, recorder.count(), recorder.errors(),
+                recorder.count() / (duration.toMillis() / 1000.0),
+                recorder.percentileMillis(50), recorder.percentileMillis(99))));
+        return report.toString();
+    }
+
+    public String csv() {
+        StringBuilder csv = new StringBuilder("endpoint,requests,errors,throughput_rps,p50_ms,p99_ms\n");
+        new TreeMap<>(endpoints).forEach((name, recorder) -> csv.append(String.format(Locale.ROOT,
+                "\"%s\",%d,%d,%.1f,%.2f,%.2f%n", name, recorder.count(), recorder.errors(),
+                recorder.count() / (duration.toMillis() / 1000.0),
+                recorder.percentileMillis(50), recorder.percentileMillis(99))));
+        return csv.toString();
+    }
+
+    public void writeTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("load-report.txt"), format());
+        Files.writeString(directory.resolve("load-report.csv"), csv());
+    }
+}
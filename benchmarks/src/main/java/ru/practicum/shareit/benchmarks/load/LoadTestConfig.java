@@ -0,0 +1,46 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Параметры нагрузочного прогона; каждый задается системным свойством {@code -Dload.<имя>}.
+ * Значения по умолчанию рассчитаны на файловую H2 и одну машину с сервером, гейтвеем и драйвером нагрузки:
+ * заполнение занимает около минуты, и очереди запросов остаются короткими.
+ */
+public record LoadTestConfig(int users, int items, int bookings, int requests, int comments,
+                             int concurrency, Duration warmup, Duration duration,
+                             int serverPort, int gatewayPort,
+                             Path serverJar, Path gatewayJar, Path workDirectory, Path reportDirectory,
+                             String profiles, Duration maxBookingP99) {
+
+    public static LoadTestConfig fromSystemProperties() {
+        int items = Integer.getInteger("load.items", 10_000);
+        return new LoadTestConfig(
+                Integer.getInteger("load.users", 1_000),
+                items,
+                Integer.getInteger("load.bookings", 200_000),
+                Integer.getInteger("load.requests", 1_000),
+                Integer.getInteger("load.comments", items * 2),
+                Integer.getInteger("load.concurrency", 4),
+                Duration.ofSeconds(Integer.getInteger("load.warmupSeconds", 15)),
+                Duration.ofSeconds(Integer.getInteger("load.durationSeconds", 60)),
+                Integer.getInteger("load.serverPort", 19090),
+                Integer.getInteger("load.gatewayPort", 18080),
+                Path.of(System.getProperty("load.serverJar",
+                        "server/target/shareit-server-0.0.1-SNAPSHOT-exec.jar")),
+                Path.of(System.getProperty("load.gatewayJar",
+                        "gateway/target/shareit-gateway-0.0.1-SNAPSHOT-exec.jar")),
+                Path.of(System.getProperty("load.workDirectory", "benchmarks/target/load-test")),
+                Path.of(System.getProperty("load.reportDirectory", "benchmarks/target/load-test")),
+                System.getProperty("load.profiles", ""),
+                Duration.ofMillis(Long.getLong("load.maxBookingP99Millis", 2_000)));
+    }
+
+    /**
+     * Число непересекающихся слотов бронирования на одну вещь.
+     */
+    public int slotsPerItem() {
+        return Math.max(1, (bookings + items - 1) / items);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Сквозной нагрузочный прогон без внешней инфраструктуры: сервер работает на файловой H2
+ * в режиме совместимости с PostgreSQL, база заполняется {@link DataSeeder}, нагрузка идет через гейтвей.
+ * Отчет с p50/p99 и пропускной способностью по каждому эндпоинту пишется в {@code load.reportDirectory}.
+ * <p>
+ * Запуск: {@code mvn -Pload-test verify -DskipTests}; параметры описаны в {@link LoadTestConfig}.
+ */
+public class LoadTestHarness {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(5);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Files.createDirectories(config.workDirectory());
+        // сценарий рассчитывает на свежие данные: подтверждения и новые бронирования идут по формулам сидера
+        Files.deleteIfExists(config.workDirectory().resolve("shareit.mv.db"));
+        String jdbcUrl = "jdbc:h2:file:" + config.workDirectory().toAbsolutePath().resolve("shareit")
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+        // первый запуск сервера только создает схему миграциями Flyway; данные грузятся в остановленную базу
+        try (ApplicationProcess server = startServer(config, jdbcUrl)) {
+            server.awaitHealthy(STARTUP_TIMEOUT);
+        }
+        long seedStartedAt = System.nanoTime();
+        new DataSeeder(jdbcUrl, config).seed();
+        System.out.printf("Данные загружены за %d с%n",
+                Duration.ofNanos(System.nanoTime() - seedStartedAt).toSeconds());
+
+        try (ApplicationProcess server = startServer(config, jdbcUrl);
+             ApplicationProcess gateway = ApplicationProcess.start("gateway", config.gatewayJar(),
+                     config.gatewayPort(), config.workDirectory().resolve("gateway.log"), List.of(
+                             "--spring.profiles.active=" + config.profiles(),
+                             "--shareit-server.url=http://localhost:" + config.serverPort(),
+                             "--logging.level.org.springframework.web.client.RestTemplate=WARN",
+                             "--logging.level.org.apache.http=WARN",
+                             "--logging.level.httpclient.wire=WARN"))) {
+            server.awaitHealthy(STARTUP_TIMEOUT);
+            gateway.awaitHealthy(STARTUP_TIMEOUT);
+
+            String baseUrl = "http://localhost:" + config.gatewayPort();
+            HttpLoadDriver driver = new HttpLoadDriver(baseUrl);
+            List<LoadEndpoint> scenario = new SeededScenario(baseUrl, config).endpoints();
+            driver.run(scenario, config.concurrency(), config.warmup());
+            LoadReport report = driver.run(scenario, config.concurrency(), config.duration());
+
+            report.writeTo(config.reportDirectory());
+            System.out.print(report.format());
+            checkBookingLatency(config, report);
+        }
+    }
+
+    /**
+     * Проверяет границу p99 создания бронирования; нулевая граница отключает проверку.
+     */
+    private static void checkBookingLatency(LoadTestConfig config, LoadReport report) {
+        LatencyRecorder bookings = report.endpoints().get("POST /bookings");
+        if (config.maxBookingP99().isZero() || bookings == null || bookings.count() == 0) {
+            return;
+        }
+        double p99 = bookings.percentileMillis(99);
+        if (p99 > config.maxBookingP99().toMillis()) {
+            throw new IllegalStateException(String.format(Locale.ROOT,
+                    "p99 создания бронирования %.2f мс превышает границу %d мс", p99,
+                    config.maxBookingP99().toMillis()));
+        }
+    }
+
+    private static ApplicationProcess startServer(LoadTestConfig config, String jdbcUrl) throws IOException {
+        return ApplicationProcess.start("server", config.serverJar(), config.serverPort(),
+                config.workDirectory().resolve("server.log"), List.of(
+                        "--spring.profiles.active=" + config.profiles(),
+                        "--spring.datasource.url=" + jdbcUrl,
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"));
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Эндпоинты коллекции postman с весами, близкими к реальному профилю: чтение преобладает,
+ * запись идет в уникальные слоты далекого будущего, чтобы не упираться в проверку пересечений.
+ * Идентификаторы берутся из формул {@link DataSeeder}.
+ */
+public class SeededScenario {
+
+    private static final LocalDateTime NEW_BOOKINGS_ORIGIN = LocalDateTime.of(2200, 1, 1, 10, 0);
+
+    private final String baseUrl;
+    private final LoadTestConfig config;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong waitingBookingCursor;
+
+    public SeededScenario(String baseUrl, LoadTestConfig config) {
+        this.baseUrl = baseUrl;
+        this.config = config;
+        this.waitingBookingCursor = new AtomicLong((long) (config.slotsPerItem() / 2 + 1) * config.items());
+    }
+
+    public List<LoadEndpoint> endpoints() {
+        return List.of(
+                new LoadEndpoint("GET /users/{id}", 5, () -> get("/users/" + randomUser(), randomUser())),
+                new LoadEndpoint("GET /items/{id}", 20, () -> {
+                    long itemId = randomItem();
+                    return get("/items/" + itemId, DataSeeder.ownerOf(itemId, config));
+                }),
+                new LoadEndpoint("GET /items", 10, () -> get("/items", randomUser())),
+                new LoadEndpoint("GET /items/search", 15, () -> get("/items/search?text="
+                        + encode(DataSeeder.NAMES[random(DataSeeder.NAMES.length)]), randomUser())),
+                new LoadEndpoint("GET /bookings", 10, () -> get("/bookings?state=" + randomState(), randomUser())),
+                new LoadEndpoint("GET /bookings/owner", 10,
+                        () -> get("/bookings/owner?state=" + randomState(), randomUser())),
+                new LoadEndpoint("GET /requests", 5, () -> get("/requests", randomUser())),
+                new LoadEndpoint("GET /requests/all", 5, () -> get("/requests/all", randomUser())),
+                new LoadEndpoint("GET /requests/{id}", 5,
+                        () -> get("/requests/" + (random(config.requests()) + 1), randomUser())),
+                new LoadEndpoint("POST /users", 2, () -> {
+                    long n = sequence.incrementAndGet();
+                    return LoadEndpoint.send("POST", baseUrl, "/users", null,
+                            "{\"name\":\"load" + n + "\",\"email\":\"load" + n + "-" + System.nanoTime()
+                                    + "@load.test\"}");
+                }),
+                new LoadEndpoint("POST /items", 3, () -> LoadEndpoint.send("POST", baseUrl, "/items", randomUser(),
+                        "{\"name\":\"" + DataSeeder.itemName(sequence.incrementAndGet())
+                                + "\",\"description\":\"Новая вещь\",\"available\":true}")),
+                new LoadEndpoint("POST /bookings", 5, this::newBooking),
+                new LoadEndpoint("PATCH /bookings/{id}", 5, this::approveWaitingBooking));
+    }
+
+    /**
+     * Каждое новое бронирование занимает собственные сутки после 2200 года — пересечений нет.
+     */
+    private HttpRequest newBooking() {
+        long itemId;
+        do {
+            itemId = randomItem();
+        } while (!DataSeeder.isAvailable(itemId));
+        long owner = DataSeeder.ownerOf(itemId, config);
+        long booker = owner % config.users() + 1;
+        LocalDateTime start = NEW_BOOKINGS_ORIGIN.plusDays(sequence.incrementAndGet());
+        return LoadEndpoint.send("POST", baseUrl, "/bookings", booker, "{\"itemId\":" + itemId
+                + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusHours(12) + "\"}");
+    }
+
+    /**
+     * Подтверждает будущие бронирования в статусе WAITING по порядку; каждое — один раз.
+     */
+    private HttpRequest approveWaitingBooking() {
+        long bookingId;
+        do {
+            bookingId = waitingBookingCursor.incrementAndGet();
+        } while (!DataSeeder.isWaiting(bookingId));
+        long owner = DataSeeder.ownerOf(DataSeeder.itemOfBooking(bookingId, config), config);
+        return LoadEndpoint.send("PATCH", baseUrl, "/bookings/" + bookingId + "?approved=true", owner, null);
+    }
+
+    private HttpRequest get(String path, long userId) {
+        return LoadEndpoint.get(baseUrl, path, userId);
+    }
+
+    private long randomUser() {
+        return random(config.users()) + 1;
+    }
+
+    private long randomItem() {
+        return random(config.items()) + 1;
+    }
+
+    private static String randomState() {
+        String[] states = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+        return states[random(states.length)];
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    private static String encode(String text) {
+        return URLEncoder.encode(text.toLowerCase(Locale.ROOT), StandardCharsets.UTF_8);
+    }
+}
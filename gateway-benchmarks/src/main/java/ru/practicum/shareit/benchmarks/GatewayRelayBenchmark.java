@@ -0,0 +1,160 @@
+package ru.practicum.shareit.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.BookingEventStreams;
+import ru.practicum.shareit.client.HttpClientConfig;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.client.ReactiveGatewayConfig;
+import ru.practicum.shareit.client.RestTemplateServerTransport;
+import ru.practicum.shareit.client.ShareItServerTransport;
+import ru.practicum.shareit.client.WebClientServerTransport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * GET /bookings через гейтвей: контроллер, BookingClient и транспорт обоих профилей против заглушки сервера
+ * в том же процессе, которая отдает готовый список бронирований. Стек {@code mvc} — RestTemplateServerTransport
+ * под MockMvc, {@code reactive} — WebClientServerTransport под WebTestClient. Заглушка и тестовые клиенты
+ * тоже выделяют память, поэтому {@code gc.alloc.rate.norm} сравнивает размеры ответа и стеки между собой,
+ * а не дает чистую стоимость гейтвея. Запускать с профилировщиком {@code -prof gc}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewayRelayBenchmark {
+
+    private static final long USER_ID = 1;
+
+    @Param({"10", "100", "1000"})
+    private int bookings;
+
+    @Param({"mvc", "reactive"})
+    private String stack;
+
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+    private ConnectionProvider connectionProvider;
+    private MockMvc mockMvc;
+    private WebTestClient webTestClient;
+
+    @Setup
+    public void setUp() throws IOException {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)
+                .setLevel(Level.WARN);
+        byte[] listing = listing(bookings);
+        // Без TCP_NODELAY заглушка отвечает с задержкой подтверждения TCP, около 40 мс на запрос.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bookings", exchange -> {
+            try (exchange) {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, listing.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(listing);
+                }
+            }
+        });
+        server.start();
+        String serverUrl = "http://localhost:" + server.getAddress().getPort();
+        HttpClientProperties properties = new HttpClientProperties();
+
+        if ("mvc".equals(stack)) {
+            HttpClientConfig config = new HttpClientConfig();
+            httpClient = config.shareItServerHttpClient(config.shareItServerConnectionManager(properties), properties);
+            ShareItServerTransport transport = new RestTemplateServerTransport(serverUrl, new RestTemplateBuilder(),
+                    config.shareItServerRequestFactory(httpClient), httpClient);
+            mockMvc = MockMvcBuilders.standaloneSetup(controller(transport)).build();
+        } else {
+            ReactiveGatewayConfig config = new ReactiveGatewayConfig();
+            connectionProvider = config.shareItServerConnectionProvider(properties);
+            WebClient webClient = config.shareItServerWebClient(serverUrl, WebClient.builder(), connectionProvider,
+                    properties);
+            webTestClient = WebTestClient.bindToController(controller(new WebClientServerTransport(webClient)))
+                    .httpMessageCodecs(config::configureHttpMessageCodecs)
+                    .build();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        server.stop(0);
+    }
+
+    @Benchmark
+    public int relay() throws Exception {
+        if (mockMvc != null) {
+            MvcResult started = mockMvc.perform(get("/bookings")
+                            .header(ShareItServerTransport.USER_ID_HEADER, USER_ID))
+                    .andReturn();
+            return mockMvc.perform(asyncDispatch(started)).andReturn().getResponse().getContentAsByteArray().length;
+        }
+        byte[] body = webTestClient.get().uri("/bookings")
+                .header(ShareItServerTransport.USER_ID_HEADER, String.valueOf(USER_ID))
+                .exchange()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+        return body != null ? body.length : 0;
+    }
+
+    private static BookingController controller(ShareItServerTransport transport) {
+        BookingClient bookingClient = new BookingClient(transport, new SimpleMeterRegistry());
+        return new BookingController(bookingClient, new BookingEventStreams(bookingClient, 256, 100));
+    }
+
+    private static byte[] listing(int bookings) {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 12, 0);
+        return IntStream.range(0, bookings)
+                .mapToObj(i -> String.format("{\"id\":%d,\"start\":\"%s\",\"end\":\"%s\",\"status\":\"APPROVED\","
+                                + "\"item\":{\"id\":%d,\"name\":\"Дрель %d\"},"
+                                + "\"booker\":{\"id\":%d,\"name\":\"Пользователь %d\"}}",
+                        i, start.plusDays(i), start.plusDays(i + 1), i % 100, i, i % 50, i))
+                .collect(Collectors.joining(",", "[", "]"))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
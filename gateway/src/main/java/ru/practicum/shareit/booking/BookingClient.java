@@ -1,62 +1,85 @@
 package ru.practicum.shareit.booking;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ShareItServerTransport;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public BookingClient(ShareItServerTransport transport, MeterRegistry meterRegistry) {
+        super(API_PREFIX, transport, meterRegistry);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getBookings(long userId, BookingState state, Integer from, Integer size,
+                                              LocalDateTime cursorStart, Long cursorId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get("?state={state}&from={from}&size={size}" + cursorQuery(cursorStart, cursorId, parameters),
+                userId, parameters);
     }
 
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> bookItems(long userId, List<BookItemRequestDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public Flux<ServerSentEvent<String>> getEvents(long userId) {
+        return stream("/events", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> approveBooking(long userId, long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> approveBooking(long userId, long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(long userId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> approveBookings(long userId, List<Long> bookingIds, boolean approved) {
+        Map<String, Object> parameters = Map.of("approved", approved);
+        return patch("/batch?approved={approved}", userId, parameters, bookingIds);
+    }
+
+    public Mono<ResponseEntity<Object>> getOwnerBookings(long userId, BookingState state, int from, int size,
+                                                   LocalDateTime cursorStart, Long cursorId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get("/owner?state={state}&from={from}&size={size}" + cursorQuery(cursorStart, cursorId, parameters),
+                userId, parameters);
+    }
+
+    private static String cursorQuery(LocalDateTime cursorStart, Long cursorId, Map<String, Object> parameters) {
+        if (cursorStart == null || cursorId == null) {
+            return "";
+        }
+        parameters.put("cursorStart", cursorStart.toString());
+        parameters.put("cursorId", cursorId);
+        return "&cursorStart={cursorStart}&cursorId={cursorId}";
     }
 }
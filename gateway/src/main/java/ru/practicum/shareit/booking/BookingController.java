@@ -1,18 +1,29 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -20,35 +31,63 @@ import ru.practicum.shareit.booking.dto.BookingState;
 @Slf4j
 @Validated
 public class BookingController {
+	private static final int MAX_BATCH_SIZE = 100;
+
 	private final BookingClient bookingClient;
+	private final BookingEventStreams bookingEventStreams;
 
 	@GetMapping
-	public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+	public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
 			@RequestParam(name = "state", defaultValue = "all") String stateParam,
 			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorStart,
+			@RequestParam(required = false) Long cursorId) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getBookings(userId, state, from, size);
+		log.info("Get booking with state {}, userId={}, from={}, size={}, cursor=({}, {})", stateParam, userId, from,
+				size, cursorStart, cursorId);
+		return bookingClient.getBookings(userId, state, from, size, cursorStart, cursorId);
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+	public Mono<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
 			@RequestBody @Valid BookItemRequestDto requestDto) {
 		log.info("Creating booking {}, userId={}", requestDto, userId);
 		return bookingClient.bookItem(userId, requestDto);
 	}
 
+	@PostMapping("/batch")
+	public Mono<ResponseEntity<Object>> bookItems(@RequestHeader("X-Sharer-User-Id") long userId,
+			@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@NotNull @Valid BookItemRequestDto> requestDtos) {
+		log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+		return bookingClient.bookItems(userId, requestDtos);
+	}
+
+	@PatchMapping("/batch")
+	public Mono<ResponseEntity<Object>> approveBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+			@RequestParam boolean approved,
+			@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@NotNull @Positive Long> bookingIds) {
+		log.info("Approving {} bookings, userId={}, approved={}", bookingIds.size(), userId, approved);
+		return bookingClient.approveBookings(userId, bookingIds, approved);
+	}
+
+	@ResponseBody
+	@GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Flux<ServerSentEvent<String>> getEvents(@RequestHeader("X-Sharer-User-Id") long userId) {
+		log.info("Subscribing to booking events, userId={}", userId);
+		return bookingEventStreams.subscribe(userId);
+	}
+
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+	public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
 			@PathVariable Long bookingId) {
 		log.info("Get booking {}, userId={}", bookingId, userId);
 		return bookingClient.getBooking(userId, bookingId);
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+	public Mono<ResponseEntity<Object>> approveBooking(@RequestHeader("X-Sharer-User-Id") long userId,
 												 @PathVariable Long bookingId,
 												 @RequestParam boolean approved) {
 		log.info("Approving booking {}, userId={}, approved={}", bookingId, userId, approved);
@@ -56,14 +95,18 @@ public class BookingController {
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+	public Mono<ResponseEntity<Object>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
 												   @RequestParam(name = "state", defaultValue = "all") String stateParam,
 												   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-												   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+												   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+												   @RequestParam(required = false)
+												   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorStart,
+												   @RequestParam(required = false) Long cursorId) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Неизвестное значение запроса state:" + stateParam));
-		log.info("Get bookings for owner with state {}, ownerId={}, from={}, size={}", stateParam, ownerId, from, size);
-		return bookingClient.getOwnerBookings(ownerId, state, from, size);
+		log.info("Get bookings for owner with state {}, ownerId={}, from={}, size={}, cursor=({}, {})", stateParam,
+				ownerId, from, size, cursorStart, cursorId);
+		return bookingClient.getOwnerBookings(ownerId, state, from, size, cursorStart, cursorId);
 	}
 
 }
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ленты бронирований клиентов гейтвея. Все подключения одного пользователя читают один поток
+ * сервера, который закрывается вместе с последним из них. У каждого клиента своя очередь на
+ * {@code shareit.feed.buffer-size} событий: при ее переполнении медленный клиент сразу отписывается
+ * от потока сервера и не задерживает остальных, а дочитав очередь, получает ошибку и отключается. Число потоков к серверу ограничено {@code shareit.feed.max-upstreams},
+ * чтобы они не заняли весь пул соединений обычных запросов.
+ */
+@Slf4j
+@Component
+public class BookingEventStreams {
+
+    private final BookingClient bookingClient;
+    private final int bufferSize;
+    private final int maxUpstreams;
+    private final ConcurrentMap<Long, Flux<ServerSentEvent<String>>> upstreams = new ConcurrentHashMap<>();
+
+    public BookingEventStreams(BookingClient bookingClient,
+                               @Value("${shareit.feed.buffer-size:256}") int bufferSize,
+                               @Value("${shareit.feed.max-upstreams:100}") int maxUpstreams) {
+        this.bookingClient = bookingClient;
+        this.bufferSize = bufferSize;
+        this.maxUpstreams = maxUpstreams;
+    }
+
+    public Flux<ServerSentEvent<String>> subscribe(long userId) {
+        return Flux.defer(() -> {
+            Flux<ServerSentEvent<String>> upstream = upstreams.get(userId);
+            if (upstream == null) {
+                if (upstreams.size() >= maxUpstreams) {
+                    log.warn("Booking event stream rejected, userId={}: {} upstreams open", userId, upstreams.size());
+                    return Flux.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Слишком много открытых лент бронирований"));
+                }
+                upstream = upstreams.computeIfAbsent(userId, this::connect);
+            }
+            return upstream.onBackpressureBuffer(bufferSize,
+                    event -> log.info("Booking event stream overflow, userId={}, client disconnected", userId),
+                    BufferOverflowStrategy.ERROR);
+        });
+    }
+
+    private Flux<ServerSentEvent<String>> connect(long userId) {
+        AtomicReference<Flux<ServerSentEvent<String>>> self = new AtomicReference<>();
+        Flux<ServerSentEvent<String>> shared = bookingClient.getEvents(userId)
+                .doFinally(signal -> upstreams.remove(userId, self.get()))
+                .publish()
+                .refCount();
+        self.set(shared);
+        log.info("Opening booking event stream to server, userId={}", userId);
+        return shared;
+    }
+}
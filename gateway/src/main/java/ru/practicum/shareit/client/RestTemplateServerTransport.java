@@ -0,0 +1,203 @@
+package ru.practicum.shareit.client;
+
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+@Component
+@Profile("!reactive")
+public class RestTemplateServerTransport implements ShareItServerTransport {
+
+    private final RestTemplate rest;
+    private final ClientHttpRequestFactory requestFactory;
+    private final String serverUrl;
+    private final CloseableHttpClient httpClient;
+    private final Scheduler streamScheduler = Schedulers.fromExecutorService(
+            Executors.newVirtualThreadPerTaskExecutor(), "shareit-server-streams");
+
+    public RestTemplateServerTransport(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                                       ClientHttpRequestFactory requestFactory,
+                                       CloseableHttpClient shareItServerHttpClient) {
+        this.rest = builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                .requestFactory(() -> requestFactory)
+                .build();
+        this.requestFactory = requestFactory;
+        this.serverUrl = serverUrl;
+        this.httpClient = shareItServerHttpClient;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.fromCallable(() -> send(method, path, userId, parameters, body));
+    }
+
+    /**
+     * Поток читается напрямую через HttpClient, а не через RestTemplate: закрывая ответ, RestTemplate
+     * дочитывает тело до конца, а у бесконечного потока конца нет. Отмена подписки прерывает запрос,
+     * и блокированное чтение в виртуальном потоке завершается.
+     */
+    @Override
+    public Flux<ServerSentEvent<String>> stream(String path, long userId) {
+        return Flux.<ServerSentEvent<String>>create(sink -> {
+            HttpGet request = new HttpGet(serverUrl + path);
+            ShareItServerTransport.streamHeaders(userId)
+                    .forEach((name, values) -> values.forEach(value -> request.addHeader(name, value)));
+            sink.onDispose(request::cancel);
+            try (ClassicHttpResponse response = httpClient.executeOpen(null, request, null)) {
+                if (response.getCode() >= 400) {
+                    sink.error(new ResponseStatusException(HttpStatusCode.valueOf(response.getCode())));
+                } else {
+                    if (response.getEntity() != null) {
+                        readEvents(response.getEntity().getContent(), sink);
+                    }
+                    sink.complete();
+                }
+            } catch (IOException e) {
+                if (!sink.isCancelled()) {
+                    sink.error(e);
+                }
+            }
+        }).subscribeOn(streamScheduler);
+    }
+
+    /**
+     * Запрос собирается обработчиком URI и конвертерами RestTemplate, но выполняется напрямую через фабрику
+     * запросов: RestTemplate закрывает ответ до возврата, дочитав тело в память. Здесь ответ остается
+     * открытым, тело уходит клиенту потоком, и соединение возвращается в пул, когда поток закрыт
+     * после записи.
+     */
+    private ResponseEntity<Object> send(HttpMethod method, String path, @Nullable Long userId,
+                                        @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = requestFactory.createRequest(uri, method);
+            request.getHeaders().addAll(ShareItServerTransport.defaultHeaders(userId));
+            if (body != null) {
+                writeBody(body, request);
+            }
+            response = request.execute();
+            return relay(response);
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw new ResourceAccessException("Ошибка ввода-вывода при запросе " + method + " " + uri, e);
+        }
+    }
+
+    private ResponseEntity<Object> relay(ClientHttpResponse response) throws IOException {
+        HttpStatusCode status = response.getStatusCode();
+        HttpHeaders headers = response.getHeaders();
+        if (headers.getContentLength() == 0 || status.isSameCodeAs(HttpStatus.NO_CONTENT)
+                || status.isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            response.close();
+            return ShareItServerTransport.relay(status, headers, null);
+        }
+        InputStream responseBody = new FilterInputStream(response.getBody()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    response.close();
+                }
+            }
+        };
+        return ShareItServerTransport.relay(status, headers, new InputStreamResource(responseBody));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeBody(Object body, ClientHttpRequest request) throws IOException {
+        for (HttpMessageConverter<?> converter : rest.getMessageConverters()) {
+            if (converter.canWrite(body.getClass(), MediaType.APPLICATION_JSON)) {
+                ((HttpMessageConverter<Object>) converter).write(body, MediaType.APPLICATION_JSON, request);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Нет конвертера для тела запроса " + body.getClass().getName());
+    }
+
+    /**
+     * Разбор text/event-stream: поля id, event, data и комментарии; пустая строка завершает событие.
+     */
+    static void readEvents(InputStream body, FluxSink<ServerSentEvent<String>> sink) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        ServerSentEvent.Builder<String> event = ServerSentEvent.builder();
+        StringBuilder data = null;
+        boolean empty = true;
+        String line;
+        while (!sink.isCancelled() && (line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                if (!empty) {
+                    if (data != null) {
+                        event.data(data.toString());
+                    }
+                    sink.next(event.build());
+                }
+                event = ServerSentEvent.builder();
+                data = null;
+                empty = true;
+                continue;
+            }
+            empty = false;
+            if (line.startsWith(":")) {
+                event.comment(line.substring(1).strip());
+                continue;
+            }
+            int colon = line.indexOf(':');
+            String field = colon < 0 ? line : line.substring(0, colon);
+            String value = colon < 0 ? "" : line.substring(colon + 1);
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+            switch (field) {
+                case "id" -> event.id(value);
+                case "event" -> event.event(value);
+                case "data" -> data = data == null ? new StringBuilder(value) : data.append('\n').append(value);
+                default -> {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+
+/**
+ * Тело ответа сервера в профиле {@code reactive}. Контроллеры возвращают {@code ResponseEntity<Object>},
+ * и голый {@code Flux<DataBuffer>} в таком ответе WebFlux сериализовал бы в JSON как список объектов;
+ * обертку пишет клиенту {@link ServerResponseBodyWriter} буфер за буфером.
+ */
+record ServerResponseBody(Flux<DataBuffer> content) {
+}
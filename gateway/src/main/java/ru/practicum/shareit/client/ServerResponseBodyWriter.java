@@ -0,0 +1,39 @@
+package ru.practicum.shareit.client;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Пишет {@link ServerResponseBody} в ответ клиенту как есть, без разбора и буферизации.
+ */
+class ServerResponseBodyWriter implements HttpMessageWriter<ServerResponseBody> {
+
+    @Override
+    public List<MediaType> getWritableMediaTypes() {
+        return List.of(MediaType.ALL);
+    }
+
+    @Override
+    public boolean canWrite(ResolvableType elementType, @Nullable MediaType mediaType) {
+        return ServerResponseBody.class.isAssignableFrom(elementType.toClass());
+    }
+
+    @Override
+    public Mono<Void> write(Publisher<? extends ServerResponseBody> inputStream, ResolvableType elementType,
+                            @Nullable MediaType mediaType, ReactiveHttpOutputMessage message,
+                            Map<String, Object> hints) {
+        if (message.getHeaders().getContentType() == null && mediaType != null && mediaType.isConcrete()) {
+            message.getHeaders().setContentType(mediaType);
+        }
+        return message.writeWith(Flux.from(inputStream).concatMap(ServerResponseBody::content));
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Транспорт запросов гейтвея к серверу. Реализация выбирается профилем: блокирующий
+ * RestTemplate по умолчанию или неблокирующий WebClient в профиле {@code reactive}.
+ */
+public interface ShareItServerTransport {
+
+    String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "proxy-connection", "te", "trailer", "transfer-encoding", "upgrade");
+
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                          @Nullable Map<String, Object> parameters, @Nullable Object body);
+
+    /**
+     * Поток событий сервера ({@code text/event-stream}). Ответ с ошибкой завершает поток
+     * ResponseStatusException со статусом сервера; отмена подписки закрывает соединение.
+     */
+    Flux<ServerSentEvent<String>> stream(String path, long userId);
+
+    static HttpHeaders defaultHeaders(@Nullable Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            headers.set(USER_ID_HEADER, String.valueOf(userId));
+        }
+        return headers;
+    }
+
+    /**
+     * JSON в Accept нужен для ответа с ошибкой: без него сервер не сможет отдать тело ошибки
+     * и вместо 404 ответит 500.
+     */
+    static HttpHeaders streamHeaders(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
+        headers.set(USER_ID_HEADER, String.valueOf(userId));
+        return headers;
+    }
+
+    /**
+     * Ответ сервера передается клиенту как есть: статус, заголовки без hop-by-hop и тело потоком байтов,
+     * без буферизации и разбора JSON. Гейтвей валидирует только входящий запрос.
+     *
+     * @param body тело ответа, которое фреймворк гейтвея пишет клиенту потоком: {@code InputStreamResource}
+     *             в MVC или {@link ServerResponseBody} в WebFlux; null, если тела нет
+     */
+    static ResponseEntity<Object> relay(HttpStatusCode status, HttpHeaders serverHeaders, @Nullable Object body) {
+        HttpHeaders headers = relayHeaders(serverHeaders);
+        if (body != null && headers.getContentType() == null && headers.getContentLength() != 0) {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+        }
+        return new ResponseEntity<>(body, headers, status);
+    }
+
+    /**
+     * Заголовки ответа сервера без hop-by-hop (RFC 9110, раздел 7.6.1): они относятся к соединению
+     * гейтвея с сервером, а не к ответу клиенту.
+     */
+    static HttpHeaders relayHeaders(HttpHeaders serverHeaders) {
+        Set<String> connectionHeaders = new HashSet<>();
+        serverHeaders.getConnection().forEach(name -> connectionHeaders.add(name.toLowerCase(Locale.ROOT)));
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            String lowerCaseName = name.toLowerCase(Locale.ROOT);
+            if (!HOP_BY_HOP_HEADERS.contains(lowerCaseName) && !connectionHeaders.contains(lowerCaseName)) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+}
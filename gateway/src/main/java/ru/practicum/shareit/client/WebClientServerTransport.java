@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Component
+@Profile("reactive")
+public class WebClientServerTransport implements ShareItServerTransport {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient webClient;
+
+    public WebClientServerTransport(WebClient shareItServerWebClient) {
+        this.webClient = shareItServerWebClient;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Long userId,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(ShareItServerTransport.defaultHeaders(userId)));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        // Ошибка сервера — такой же ответ для клиента: retrieve не превращает ее в исключение,
+        // а тело идет клиенту потоком буферов по мере чтения из соединения с сервером.
+        return spec.retrieve()
+                .onStatus(HttpStatusCode::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> ShareItServerTransport.relay(response.getStatusCode(), response.getHeaders(),
+                        response.getBody() != null ? new ServerResponseBody(response.getBody()) : null));
+    }
+
+    @Override
+    public Flux<ServerSentEvent<String>> stream(String path, long userId) {
+        return webClient.get()
+                .uri(path)
+                .headers(headers -> headers.addAll(ShareItServerTransport.streamHeaders(userId)))
+                .retrieve()
+                .onStatus(HttpStatusCode::isError,
+                        response -> Mono.just(new ResponseStatusException(response.statusCode())))
+                .bodyToFlux(SSE_TYPE);
+    }
+}
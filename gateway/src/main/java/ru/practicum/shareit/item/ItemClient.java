@@ -4,45 +4,46 @@ package ru.practicum.shareit.item;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ShareItServerTransport;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public ItemClient(ShareItServerTransport transport, MeterRegistry meterRegistry) {
+        super(API_PREFIX, transport, meterRegistry);
     }
 
-    public ResponseEntity<Object> getUsersItems(long userId, @PositiveOrZero Integer from, @Positive Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getUsersItems(long userId, @PositiveOrZero Integer from, @Positive Integer size,
+                                                      Long cursorId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+        ));
+        if (cursorId == null) {
+            return get("?from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursorId", cursorId);
+        return get("?from={from}&size={size}&cursorId={cursorId}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemById(long userId, Long itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(long userId, Long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItemsByText(long userId, String text, @PositiveOrZero Integer from, @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> getItemsByText(long userId, String text, @PositiveOrZero Integer from, @Positive Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -51,19 +52,47 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> createItem(long userId, @Valid ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> getAvailableItemsByText(long userId, String text, LocalDateTime start,
+                                                                LocalDateTime end, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "start", start.toString(),
+                "end", end.toString(),
+                "from", from,
+                "size", size
+        );
+        return get("/search/available?text={text}&start={start}&end={end}&from={from}&size={size}", userId,
+                parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> createItem(long userId, @Valid ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(long userId, Long itemId, UpdateItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(long userId, Long itemId, UpdateItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> deleteItem(long userId, Long itemId) {
+    public Mono<ResponseEntity<Object>> deleteItem(long userId, Long itemId) {
         return delete("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> addComment(long userId, Long itemId, @Valid CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> getComments(long userId, Long itemId, Integer from, Integer size,
+                                                    LocalDateTime cursorCreated, Long cursorId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", from,
+                "size", size
+        ));
+        String path = "/" + itemId + "/comments?from={from}&size={size}";
+        if (cursorCreated != null && cursorId != null) {
+            parameters.put("cursorCreated", cursorCreated.toString());
+            parameters.put("cursorId", cursorId);
+            path += "&cursorCreated={cursorCreated}&cursorId={cursorId}";
+        }
+        return get(path, userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> addComment(long userId, Long itemId, @Valid CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
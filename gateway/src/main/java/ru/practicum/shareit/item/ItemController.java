@@ -5,15 +5,19 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -26,16 +30,17 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getUsersItems(
+    public Mono<ResponseEntity<Object>> getUsersItems(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        log.info("GET /items userId={}, from={}, size={}", userId, from, size);
-        return itemClient.getUsersItems(userId, from, size);
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @Positive @RequestParam(required = false) Long cursorId) {
+        log.info("GET /items userId={}, from={}, size={}, cursorId={}", userId, from, size, cursorId);
+        return itemClient.getUsersItems(userId, from, size, cursorId);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(
+    public Mono<ResponseEntity<Object>> getItemById(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PathVariable Long itemId) {
         log.info("GET /items/{} userId={}", itemId, userId);
@@ -43,7 +48,7 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemsByText(
+    public Mono<ResponseEntity<Object>> getItemsByText(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam("text") String text,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
@@ -51,14 +56,35 @@ public class ItemController {
         log.info("GET /items/search userId={}, text='{}', from={}, size={}", userId, text, from, size);
         if (text == null || text.isBlank()) {
             log.warn("Поисковый текст пуст. Возвращаем пустой список.");
-            return new ResponseEntity<>(List.of(), HttpStatus.OK);
+            return Mono.just(new ResponseEntity<>(List.of(), HttpStatus.OK));
         } else {
             return itemClient.getItemsByText(userId, text, from, size);
         }
     }
 
+    @GetMapping("/search/available")
+    public Mono<ResponseEntity<Object>> getAvailableItemsByText(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam("text") String text,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("GET /items/search/available userId={}, text='{}', start={}, end={}, from={}, size={}",
+                userId, text, start, end, from, size);
+        if (!start.isBefore(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Дата начала интервала должна быть раньше даты окончания.");
+        }
+        if (text == null || text.isBlank()) {
+            log.warn("Поисковый текст пуст. Возвращаем пустой список.");
+            return Mono.just(new ResponseEntity<>(List.of(), HttpStatus.OK));
+        }
+        return itemClient.getAvailableItemsByText(userId, text, start, end, from, size);
+    }
+
     @PostMapping
-    public ResponseEntity<Object> createItem(
+    public Mono<ResponseEntity<Object>> createItem(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestBody @Valid ItemDto itemDto) {
         log.info("POST /items userId={}, itemDto={}", userId, itemDto);
@@ -66,7 +92,7 @@ public class ItemController {
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(
+    public Mono<ResponseEntity<Object>> updateItem(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PathVariable Long itemId,
             @RequestBody @Valid UpdateItemDto itemDto) {
@@ -75,15 +101,28 @@ public class ItemController {
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> deleteItem(
+    public Mono<ResponseEntity<Object>> deleteItem(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PathVariable Long itemId) {
         log.info("DELETE /items/{} userId={}", itemId, userId);
         return itemClient.deleteItem(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public Mono<ResponseEntity<Object>> getComments(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PathVariable Long itemId,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorCreated,
+            @Positive @RequestParam(required = false) Long cursorId) {
+        log.info("GET /items/{}/comments userId={}, from={}, size={}, cursor=({}, {})", itemId, userId, from, size,
+                cursorCreated, cursorId);
+        return itemClient.getComments(userId, itemId, from, size, cursorCreated, cursorId);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(
+    public Mono<ResponseEntity<Object>> addComment(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @PathVariable Long itemId,
             @RequestBody @Valid CommentDto commentDto) {
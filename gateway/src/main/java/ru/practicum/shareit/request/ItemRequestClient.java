@@ -1,13 +1,11 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ShareItServerTransport;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 @Service
@@ -15,29 +13,23 @@ public class ItemRequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
 
-    @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public ItemRequestClient(ShareItServerTransport transport, MeterRegistry meterRegistry) {
+        super(API_PREFIX, transport, meterRegistry);
     }
 
-    public ResponseEntity<Object> addRequest(Long userId, ItemRequestDto dto) {
+    public Mono<ResponseEntity<Object>> addRequest(Long userId, ItemRequestDto dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> getUserRequests(Long userId) {
+    public Mono<ResponseEntity<Object>> getUserRequests(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getAllRequests(Long userId, int from, int size) {
         return get("/all?from=" + from + "&size=" + size, userId);
     }
 
-    public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
+    public Mono<ResponseEntity<Object>> getRequestById(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 }
\ No newline at end of file
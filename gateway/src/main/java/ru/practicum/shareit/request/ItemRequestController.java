@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 @Controller
@@ -19,29 +20,29 @@ public class ItemRequestController {
     private final ItemRequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @Valid @RequestBody ItemRequestDto dto) {
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @Valid @RequestBody ItemRequestDto dto) {
         log.info("Создание нового запроса от пользователя с ID = {}. Описание: {}", userId, dto.getDescription());
         return requestClient.addRequest(userId, dto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<Object>> getUserRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Запрошен список запросов пользователя с ID = {}", userId);
         return requestClient.getUserRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @RequestParam(defaultValue = "0") int from,
-                                         @RequestParam(defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestParam(defaultValue = "0") int from,
+                                               @RequestParam(defaultValue = "10") int size) {
         log.info("Пользователь с ID = {} запрашивает список всех запросов других пользователей. Параметры: from = {}, size = {}", userId, from, size);
         return requestClient.getAllRequests(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                          @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @PathVariable Long requestId) {
         log.info("Пользователь с ID = {} запрашивает запрос с ID = {}", userId, requestId);
         return requestClient.getRequestById(userId, requestId);
     }
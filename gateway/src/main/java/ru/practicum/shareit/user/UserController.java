@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -20,26 +21,26 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@RequestBody @Valid UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(@RequestBody @Valid UserDto userDto) {
         log.info("POST /users createUser userDto={}", userDto);
         return userClient.createUser(userDto);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long userId) {
         log.info("GET /users/{} getUserById", userId);
         return userClient.getUserById(userId);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable Long userId,
-                                             @RequestBody @Valid UpdateUserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable Long userId,
+                                                   @RequestBody @Valid UpdateUserDto userDto) {
         log.info("PATCH /users/{} updateUser userDto={}", userId, userDto);
         return userClient.updateUser(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable Long userId) {
         log.info("DELETE /users/{} deleteUser", userId);
         return userClient.deleteUser(userId);
     }
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.reactivestreams.Subscription;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class BookingEventStreamsTest {
+
+    private final BookingClient bookingClient = Mockito.mock(BookingClient.class);
+    private final Sinks.Many<ServerSentEvent<String>> server = Sinks.many().multicast().directBestEffort();
+
+    @Test
+    void connectionsOfOneUserShareServerStreamTest() {
+        Mockito.when(bookingClient.getEvents(1L)).thenReturn(server.asFlux());
+        BookingEventStreams streams = new BookingEventStreams(bookingClient, 16, 10);
+        List<String> first = new CopyOnWriteArrayList<>();
+        List<String> second = new CopyOnWriteArrayList<>();
+
+        Disposable firstConnection = streams.subscribe(1L).subscribe(event -> first.add(event.id()));
+        Disposable secondConnection = streams.subscribe(1L).subscribe(event -> second.add(event.id()));
+        server.tryEmitNext(event("1"));
+
+        assertThat(first).containsExactly("1");
+        assertThat(second).containsExactly("1");
+        verify(bookingClient, times(1)).getEvents(1L);
+
+        firstConnection.dispose();
+        secondConnection.dispose();
+        assertThat(server.currentSubscriberCount()).isZero();
+
+        streams.subscribe(1L).subscribe().dispose();
+        verify(bookingClient, times(2)).getEvents(1L);
+    }
+
+    @Test
+    void serverStreamsOverLimitAreRejectedTest() {
+        Mockito.when(bookingClient.getEvents(anyLong())).thenReturn(Flux.never());
+        BookingEventStreams streams = new BookingEventStreams(bookingClient, 16, 1);
+        AtomicReference<Throwable> sharedError = new AtomicReference<>();
+        AtomicReference<Throwable> rejectedError = new AtomicReference<>();
+
+        Disposable firstConnection = streams.subscribe(1L).subscribe();
+        Disposable sharedConnection = streams.subscribe(1L).subscribe(event -> {
+        }, sharedError::set);
+        streams.subscribe(2L).subscribe(event -> {
+        }, rejectedError::set);
+
+        assertThat(sharedError.get()).isNull();
+        assertThat(rejectedError.get()).isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        verify(bookingClient, times(0)).getEvents(2L);
+
+        firstConnection.dispose();
+        sharedConnection.dispose();
+        AtomicReference<Throwable> afterCloseError = new AtomicReference<>();
+        streams.subscribe(2L).subscribe(event -> {
+        }, afterCloseError::set).dispose();
+
+        assertThat(afterCloseError.get()).isNull();
+        verify(bookingClient, times(1)).getEvents(2L);
+    }
+
+    @Test
+    void slowConnectionOverflowDoesNotDelayOthersTest() {
+        Mockito.when(bookingClient.getEvents(1L)).thenReturn(server.asFlux());
+        BookingEventStreams streams = new BookingEventStreams(bookingClient, 2, 10);
+        List<String> slow = new CopyOnWriteArrayList<>();
+        AtomicReference<Throwable> slowError = new AtomicReference<>();
+        List<String> fast = new CopyOnWriteArrayList<>();
+        BaseSubscriber<ServerSentEvent<String>> slowConnection = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // клиент не читает поток
+            }
+
+            @Override
+            protected void hookOnNext(ServerSentEvent<String> event) {
+                slow.add(event.id());
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                slowError.set(throwable);
+            }
+        };
+
+        streams.subscribe(1L).subscribe(slowConnection);
+        Disposable fastConnection = streams.subscribe(1L).subscribe(event -> fast.add(event.id()));
+        for (int i = 1; i <= 5; i++) {
+            server.tryEmitNext(event(String.valueOf(i)));
+        }
+
+        assertThat(fast).containsExactly("1", "2", "3", "4", "5");
+        // переполненная очередь отписана от потока сервера, клиент дочитывает ее и получает ошибку
+        slowConnection.request(Long.MAX_VALUE);
+        assertThat(slow).containsExactly("1", "2");
+        assertThat(Exceptions.isOverflow(slowError.get())).isTrue();
+
+        server.tryEmitNext(event("6"));
+        assertThat(fast).endsWith("6");
+        fastConnection.dispose();
+    }
+
+    private ServerSentEvent<String> event(String id) {
+        return ServerSentEvent.<String>builder().id(id).data("{}").build();
+    }
+}
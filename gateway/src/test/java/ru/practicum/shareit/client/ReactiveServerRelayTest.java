@@ -0,0 +1,111 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+class ReactiveServerRelayTest {
+
+    private static final StubShareItServer SERVER = StubShareItServer.start();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", SERVER::url);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop();
+    }
+
+    @Test
+    void responseBodyAndEntityHeadersArePassedThroughTest() {
+        SERVER.respond("/bookings", 200, Map.of(
+                "Content-Type", "application/json",
+                "ETag", "\"v1\"",
+                "Keep-Alive", "timeout=60"), "[{\"id\":1,\"status\":\"APPROVED\"}]");
+
+        webTestClient.get().uri("/bookings")
+                .header(ShareItServerTransport.USER_ID_HEADER, "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().valueEquals("ETag", "\"v1\"")
+                .expectHeader().doesNotExist("Keep-Alive")
+                .expectBody().json("[{\"id\":1,\"status\":\"APPROVED\"}]", true);
+    }
+
+    @Test
+    void errorResponsesAreRelayedTest() {
+        SERVER.respond("/bookings/404", 404, Map.of("Content-Type", "application/json"),
+                "{\"error\":\"Бронирование не найдено\"}");
+        SERVER.respond("/bookings", 409, Map.of("Content-Type", "application/json"),
+                "{\"error\":\"Вещь уже забронирована\"}");
+
+        webTestClient.get().uri("/bookings/404")
+                .header(ShareItServerTransport.USER_ID_HEADER, "1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().json("{\"error\":\"Бронирование не найдено\"}");
+        webTestClient.post().uri("/bookings")
+                .header(ShareItServerTransport.USER_ID_HEADER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"itemId\":1,\"start\":\"2100-01-01T10:00:00\",\"end\":\"2100-01-02T10:00:00\"}")
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().json("{\"error\":\"Вещь уже забронирована\"}");
+    }
+
+    @Test
+    void bookingEventsAreStreamedTest() {
+        SERVER.respond("/bookings/events", 200, Map.of("Content-Type", "text/event-stream"), """
+                id:1
+                event:BOOKING_CREATED
+                data:{"id":10}
+
+                :ping
+
+                id:2
+                event:BOOKING_APPROVED
+                data:{"id":10,"status":"APPROVED"}
+
+                """);
+
+        List<ServerSentEvent<String>> events = webTestClient.get().uri("/bookings/events")
+                .header(ShareItServerTransport.USER_ID_HEADER, "1")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+                })
+                .getResponseBody()
+                .filter(event -> event.id() != null)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("BOOKING_CREATED", "BOOKING_APPROVED");
+        assertThat(events).extracting(ServerSentEvent::data)
+                .containsExactly("{\"id\":10}", "{\"id\":10,\"status\":\"APPROVED\"}");
+    }
+}
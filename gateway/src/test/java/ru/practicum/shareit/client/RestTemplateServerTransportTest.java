@@ -0,0 +1,98 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RestTemplateServerTransportTest {
+
+    @Test
+    void readEventsParsesIdEventAndDataTest() {
+        List<ServerSentEvent<String>> events = read("""
+                id: 1
+                event: BOOKING_CREATED
+                data: {"id":10}
+
+                id:2
+                data:{"id":11}
+
+                """);
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).id()).isEqualTo("1");
+        assertThat(events.get(0).event()).isEqualTo("BOOKING_CREATED");
+        assertThat(events.get(0).data()).isEqualTo("{\"id\":10}");
+        assertThat(events.get(1).id()).isEqualTo("2");
+        assertThat(events.get(1).event()).isNull();
+        assertThat(events.get(1).data()).isEqualTo("{\"id\":11}");
+    }
+
+    @Test
+    void readEventsJoinsMultiLineDataTest() {
+        List<ServerSentEvent<String>> events = read("""
+                id: 3
+                data: {
+                data:  "id": 12
+                data: }
+
+                """);
+
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.id()).isEqualTo("3");
+            assertThat(event.data()).isEqualTo("{\n \"id\": 12\n}");
+        });
+    }
+
+    @Test
+    void readEventsKeepsCommentsAndSkipsEmptyLinesTest() {
+        List<ServerSentEvent<String>> events = read("""
+                : heartbeat
+
+
+
+                id: 4
+                retry: 1000
+                data: {}
+
+                """);
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).comment()).isEqualTo("heartbeat");
+        assertThat(events.get(0).data()).isNull();
+        assertThat(events.get(1).id()).isEqualTo("4");
+        assertThat(events.get(1).data()).isEqualTo("{}");
+    }
+
+    @Test
+    void readEventsDropsUnfinishedEventTest() {
+        List<ServerSentEvent<String>> events = read("""
+                id: 5
+                data: {}
+
+                id: 6
+                data: {}
+                """);
+
+        assertThat(events).extracting(ServerSentEvent::id).containsExactly("5");
+    }
+
+    private List<ServerSentEvent<String>> read(String body) {
+        return Flux.<ServerSentEvent<String>>create(sink -> {
+            try {
+                RestTemplateServerTransport.readEvents(
+                        new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), sink);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            sink.complete();
+        }).collectList().block();
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ServerRelayTest {
+
+    private static final StubShareItServer SERVER = StubShareItServer.start();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", SERVER::url);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop();
+    }
+
+    @Test
+    void responseBodyAndEntityHeadersArePassedThroughTest() throws Exception {
+        SERVER.respond("/bookings", 200, Map.of(
+                "Content-Type", "application/json",
+                "ETag", "\"v1\"",
+                "Keep-Alive", "timeout=60"), "[{\"id\":1,\"status\":\"APPROVED\"}]");
+
+        perform(get("/bookings").header(ShareItServerTransport.USER_ID_HEADER, 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("[{\"id\":1,\"status\":\"APPROVED\"}]", true))
+                .andExpect(header().string("ETag", "\"v1\""))
+                .andExpect(header().doesNotExist("Keep-Alive"));
+    }
+
+    @Test
+    void errorResponsesAreRelayedTest() throws Exception {
+        SERVER.respond("/bookings/404", 404, Map.of("Content-Type", "application/json"),
+                "{\"error\":\"Бронирование не найдено\"}");
+        SERVER.respond("/bookings", 409, Map.of("Content-Type", "application/json"),
+                "{\"error\":\"Вещь уже забронирована\"}");
+
+        perform(get("/bookings/404").header(ShareItServerTransport.USER_ID_HEADER, 1))
+                .andExpect(status().isNotFound())
+                .andExpect(content().json("{\"error\":\"Бронирование не найдено\"}"));
+        perform(post("/bookings").header(ShareItServerTransport.USER_ID_HEADER, 1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"itemId\":1,\"start\":\"2100-01-01T10:00:00\",\"end\":\"2100-01-02T10:00:00\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(content().json("{\"error\":\"Вещь уже забронирована\"}"));
+    }
+
+    @Test
+    void emptyResponseIsRelayedWithoutBodyTest() throws Exception {
+        SERVER.respond("/users/1", 200, Map.of(), "");
+
+        perform(delete("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервер ShareIt для тестов гейтвея: отвечает заданными статусом, заголовками и телом по пути запроса
+ * без строки параметров. Необъявленный путь — 404 без тела.
+ */
+class StubShareItServer {
+
+    private final HttpServer server;
+    private final Map<String, Response> responses = new ConcurrentHashMap<>();
+
+    private StubShareItServer(HttpServer server) {
+        this.server = server;
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    static StubShareItServer start() {
+        try {
+            return new StubShareItServer(HttpServer.create(new InetSocketAddress("localhost", 0), 0));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    void respond(String path, int status, Map<String, String> headers, String body) {
+        responses.put(path, new Response(status, headers, body));
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            Response response = responses.get(exchange.getRequestURI().getPath());
+            if (response == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            response.headers().forEach((name, value) -> exchange.getResponseHeaders().put(name, List.of(value)));
+            byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private record Response(int status, Map<String, String> headers, String body) {
+    }
+}
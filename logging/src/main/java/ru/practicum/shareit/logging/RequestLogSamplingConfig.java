@@ -0,0 +1,28 @@
+package ru.practicum.shareit.logging;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Выборка логов запросов работает в сервлетных приложениях; в реактивном гейтвее (профиль {@code reactive})
+ * MDC не переносится между потоками обработки, и логи пишутся без выборки.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@EnableConfigurationProperties(RequestLogSamplingProperties.class)
+@ConditionalOnProperty(prefix = "shareit.logging.sampling", name = "enabled")
+public class RequestLogSamplingConfig implements WebMvcConfigurer {
+
+    private final RequestLogSamplingProperties properties;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestLogSamplingInterceptor(properties));
+    }
+}
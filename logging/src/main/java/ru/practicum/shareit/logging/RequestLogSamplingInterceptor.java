@@ -0,0 +1,35 @@
+package ru.practicum.shareit.logging;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Решает, попадает ли запрос в выборку логирования, по доле, заданной для шаблона пути эндпоинта.
+ */
+@RequiredArgsConstructor
+public class RequestLogSamplingInterceptor implements HandlerInterceptor {
+
+    private final RequestLogSamplingProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        double rate = pattern != null
+                ? properties.getRates().getOrDefault(pattern.toString(), properties.getDefaultRate())
+                : properties.getDefaultRate();
+        MDC.put(SampledRequestTurboFilter.MDC_KEY, String.valueOf(ThreadLocalRandom.current().nextDouble() < rate));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        MDC.remove(SampledRequestTurboFilter.MDC_KEY);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.logging;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.logging.sampling")
+public class RequestLogSamplingProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Доля запросов, логируемых на уровне INFO, для эндпоинтов без собственной настройки.
+     */
+    private double defaultRate = 1.0;
+
+    /**
+     * Доля логируемых запросов по шаблону пути, например {@code rates[/items/{itemId}]=0.01}.
+     */
+    private Map<String, Double> rates = new HashMap<>();
+}
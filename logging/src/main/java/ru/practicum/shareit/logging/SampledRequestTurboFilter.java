@@ -0,0 +1,27 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Отбрасывает события INFO и ниже в запросах, не попавших в выборку {@link RequestLogSamplingInterceptor}.
+ * Решение принимается до форматирования сообщения, поэтому toString() аргументов не вызывается.
+ * WARN и ERROR пишутся всегда.
+ */
+public class SampledRequestTurboFilter extends TurboFilter {
+
+    public static final String MDC_KEY = "sampled";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (level.isGreaterOrEqual(Level.WARN) || !"false".equals(MDC.get(MDC_KEY))) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestLogSamplingTest {
+
+    private final SampledRequestTurboFilter turboFilter = new SampledRequestTurboFilter();
+    private final ch.qos.logback.classic.Logger logger = new LoggerContext().getLogger("test");
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    @Test
+    void endpointRateOverridesDefaultRateTest() {
+        RequestLogSamplingProperties properties = new RequestLogSamplingProperties();
+        properties.setDefaultRate(0.0);
+        properties.setRates(Map.of("/users", 1.0));
+        RequestLogSamplingInterceptor interceptor = new RequestLogSamplingInterceptor(properties);
+
+        interceptor.preHandle(request("/users"), new MockHttpServletResponse(), new Object());
+        assertThat(MDC.get(SampledRequestTurboFilter.MDC_KEY)).isEqualTo("true");
+
+        interceptor.preHandle(request("/items/{itemId}"), new MockHttpServletResponse(), new Object());
+        assertThat(MDC.get(SampledRequestTurboFilter.MDC_KEY)).isEqualTo("false");
+
+        interceptor.afterCompletion(request("/items/{itemId}"), new MockHttpServletResponse(), new Object(), null);
+        assertThat(MDC.get(SampledRequestTurboFilter.MDC_KEY)).isNull();
+    }
+
+    @Test
+    void unsampledRequestKeepsOnlyWarningsTest() {
+        assertThat(decide(Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+
+        MDC.put(SampledRequestTurboFilter.MDC_KEY, "false");
+        assertThat(decide(Level.INFO)).isEqualTo(FilterReply.DENY);
+        assertThat(decide(Level.DEBUG)).isEqualTo(FilterReply.DENY);
+        assertThat(decide(Level.WARN)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(Level.ERROR)).isEqualTo(FilterReply.NEUTRAL);
+
+        MDC.put(SampledRequestTurboFilter.MDC_KEY, "true");
+        assertThat(decide(Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    private FilterReply decide(Level level) {
+        return turboFilter.decide(null, logger, level, "message {}", new Object[]{"dto"}, null);
+    }
+
+    private static MockHttpServletRequest request(String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+}
@@ -0,0 +1,90 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Перестраивает item_search_terms: кроме слов в индекс попадают их начала от трех символов,
+ * чтобы поиск по началу слова находил вещь, как и прежний поиск по подстроке. Разбиение на слова —
+ * копия ItemSearchTokenizer на момент V11.
+ */
+public class V11__Index_item_search_prefixes extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement delete = context.getConnection().createStatement()) {
+            delete.executeUpdate("delete from item_search_terms");
+        }
+        try (Statement select = context.getConnection().createStatement();
+             PreparedStatement insert = context.getConnection().prepareStatement(
+                     "insert into item_search_terms (term, item_id, weight, available) values (?, ?, ?, ?)")) {
+            select.setFetchSize(BATCH_SIZE);
+            int batched = 0;
+            try (ResultSet items = select.executeQuery("select id, name, description, is_available from items")) {
+                while (items.next()) {
+                    Map<String, Integer> terms = weightedTerms(
+                            items.getString("name"), items.getString("description"));
+                    for (Map.Entry<String, Integer> term : terms.entrySet()) {
+                        insert.setString(1, term.getKey());
+                        insert.setLong(2, items.getLong("id"));
+                        insert.setInt(3, term.getValue());
+                        insert.setBoolean(4, items.getBoolean("is_available"));
+                        insert.addBatch();
+                        if (++batched % BATCH_SIZE == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(DELIMITER.split(text.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term)
+                .distinct()
+                .toList();
+    }
+
+    private static Set<String> indexTerms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : tokenize(text)) {
+            for (int length = Math.min(MIN_PREFIX_LENGTH, word.length()); length <= word.length(); length++) {
+                terms.add(word.substring(0, length));
+            }
+        }
+        return terms;
+    }
+
+    private static Map<String, Integer> weightedTerms(String name, String description) {
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        indexTerms(name).forEach(term -> terms.merge(term, NAME_WEIGHT, Integer::sum));
+        indexTerms(description).forEach(term -> terms.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        return terms;
+    }
+}
@@ -0,0 +1,37 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Триграммные GIN-индексы для поиска вещей по подстроке: на PostgreSQL ими пользуется запасной путь
+ * ItemSearchIndex для фрагментов из середины слова. Нужен модуль pg_trgm; если его нет на сервере,
+ * индексы не создаются и фрагменты ищутся просмотром таблицы, как в H2.
+ */
+public class V13__Item_search_trigram_indexes extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet available = statement.executeQuery(
+                    "select 1 from pg_available_extensions where name = 'pg_trgm'")) {
+                if (!available.next()) {
+                    return;
+                }
+            }
+            statement.execute("create extension if not exists pg_trgm");
+            statement.execute("create index if not exists ix_items_name_trgm "
+                    + "on items using gin (lower(name) gin_trgm_ops)");
+            statement.execute("create index if not exists ix_items_description_trgm "
+                    + "on items using gin (lower(description) gin_trgm_ops)");
+        }
+    }
+}
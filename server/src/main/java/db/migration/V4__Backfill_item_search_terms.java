@@ -0,0 +1,73 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Заполняет item_search_terms. Разбиение на слова — копия ItemSearchTokenizer на момент V4,
+ * чтобы правки токенизатора не меняли данные, которые пишет уже выпущенная миграция.
+ */
+public class V4__Backfill_item_search_terms extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement();
+             PreparedStatement insert = context.getConnection().prepareStatement(
+                     "insert into item_search_terms (term, item_id, weight, available) values (?, ?, ?, ?)")) {
+            select.setFetchSize(BATCH_SIZE);
+            int batched = 0;
+            try (ResultSet items = select.executeQuery("select id, name, description, is_available from items")) {
+                while (items.next()) {
+                    Map<String, Integer> terms = weightedTerms(
+                            items.getString("name"), items.getString("description"));
+                    for (Map.Entry<String, Integer> term : terms.entrySet()) {
+                        insert.setString(1, term.getKey());
+                        insert.setLong(2, items.getLong("id"));
+                        insert.setInt(3, term.getValue());
+                        insert.setBoolean(4, items.getBoolean("is_available"));
+                        insert.addBatch();
+                        if (++batched % BATCH_SIZE == 0) {
+                            insert.executeBatch();
+                        }
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(DELIMITER.split(text.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term)
+                .distinct()
+                .toList();
+    }
+
+    private static Map<String, Integer> weightedTerms(String name, String description) {
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        tokenize(name).forEach(term -> terms.merge(term, NAME_WEIGHT, Integer::sum));
+        tokenize(description).forEach(term -> terms.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        return terms;
+    }
+}
@@ -0,0 +1,84 @@
+package db.migration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Заполняет item_cards в формате, действовавшем на момент V9: миграция не зависит от классов приложения,
+ * поэтому их последующие изменения не меняют результат ее повторного применения на новой базе.
+ */
+public class V9__Backfill_item_cards extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int LATEST_COMMENTS = 10;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement insert = context.getConnection().createStatement()) {
+            insert.executeUpdate("insert into item_cards (item_id, owner_id, name, description, is_available, " +
+                    "request_id, comments_count, latest_comments) " +
+                    "select i.id, i.owner_id, i.name, i.description, i.is_available, i.request_id, " +
+                    "(select count(*) from comments c where c.item_id = i.id), '[]' " +
+                    "from items i");
+        }
+        try (Statement select = context.getConnection().createStatement();
+             PreparedStatement update = context.getConnection().prepareStatement(
+                     "update item_cards set latest_comments = ? where item_id = ?")) {
+            select.setFetchSize(BATCH_SIZE);
+            int batched = 0;
+            long currentItemId = -1;
+            List<Map<String, Object>> comments = new ArrayList<>();
+            try (ResultSet rows = select.executeQuery("select c.item_id, c.id, c.text, u.name as author_name, " +
+                    "c.created from comments c join users u on u.id = c.author_id " +
+                    "order by c.item_id, c.created desc, c.id desc")) {
+                while (rows.next()) {
+                    long itemId = rows.getLong("item_id");
+                    if (itemId != currentItemId) {
+                        if (!comments.isEmpty()) {
+                            addUpdate(update, currentItemId, comments);
+                            if (++batched % BATCH_SIZE == 0) {
+                                update.executeBatch();
+                            }
+                        }
+                        currentItemId = itemId;
+                        comments = new ArrayList<>();
+                    }
+                    if (comments.size() < LATEST_COMMENTS) {
+                        Map<String, Object> comment = new LinkedHashMap<>();
+                        comment.put("id", rows.getLong("id"));
+                        comment.put("text", rows.getString("text"));
+                        comment.put("authorName", rows.getString("author_name"));
+                        comment.put("created", rows.getTimestamp("created").toLocalDateTime());
+                        comments.add(comment);
+                    }
+                }
+            }
+            if (!comments.isEmpty()) {
+                addUpdate(update, currentItemId, comments);
+            }
+            update.executeBatch();
+        }
+    }
+
+    private static void addUpdate(PreparedStatement update, long itemId, List<Map<String, Object>> comments)
+            throws Exception {
+        update.setString(1, MAPPER.writeValueAsString(comments));
+        update.setLong(2, itemId);
+        update.addBatch();
+    }
+}
@@ -2,11 +2,14 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -33,6 +36,22 @@ public class BookingController {
         return bookingService.approveBooking(userId, bookingId, approved);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                      @RequestBody List<BookingRequestDto> bookingDtos) {
+        log.info("/bookings/batch POST выполнение запроса. userId={}, size = {}.", userId, bookingDtos.size());
+        return bookingService.createBookings(userId, bookingDtos);
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingBatchResultDto> approveBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                       @RequestParam boolean approved,
+                                                       @RequestBody List<Long> bookingIds) {
+        log.info("/bookings/batch PATCH выполнение запроса. userId={}, size = {}, approved = {}.", userId,
+                bookingIds.size(), approved);
+        return bookingService.approveBookings(userId, bookingIds, approved);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@RequestHeader("X-Sharer-User-Id") long userId,
                                      @PathVariable long bookingId) {
@@ -42,16 +61,30 @@ public class BookingController {
 
     @GetMapping
     public List<BookingDto> getUserBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                            @RequestParam(defaultValue = "ALL") String state) {
-        log.info("/bookings/ GET выполнение запроса. userId={}, state = {}.", userId, state);
-        return bookingService.getBookingsByUser(userId, state);
+                                            @RequestParam(defaultValue = "ALL") String state,
+                                            @RequestParam(defaultValue = "0") int from,
+                                            @RequestParam(defaultValue = "10") int size,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                            LocalDateTime cursorStart,
+                                            @RequestParam(required = false) Long cursorId) {
+        log.info("/bookings/ GET выполнение запроса. userId={}, state = {}, from = {}, size = {}.", userId, state,
+                from, size);
+        return bookingService.getBookingsByUser(userId, state, from, size, cursorStart, cursorId);
     }
 
     @GetMapping("/owner")
     public List<BookingDto> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
-                                             @RequestParam(defaultValue = "ALL") String state) {
-        log.info("/bookings/ GET выполнение запроса. ownerId={}, state = {}.", ownerId, state);
-        return bookingService.getOwnerBookings(ownerId, state);
+                                             @RequestParam(defaultValue = "ALL") String state,
+                                             @RequestParam(defaultValue = "0") int from,
+                                             @RequestParam(defaultValue = "10") int size,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             LocalDateTime cursorStart,
+                                             @RequestParam(required = false) Long cursorId) {
+        log.info("/bookings/ GET выполнение запроса. ownerId={}, state = {}, from = {}, size = {}.", ownerId, state,
+                from, size);
+        return bookingService.getOwnerBookings(ownerId, state, from, size, cursorStart, cursorId);
     }
 
 }
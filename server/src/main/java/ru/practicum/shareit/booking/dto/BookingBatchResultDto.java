@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Итог одной позиции пакетного запроса: index — номер позиции в пакете создания, bookingId — id
+ * бронирования, status — HTTP-статус, который вернул бы одиночный запрос.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchResultDto {
+    private Integer index;
+    private Long bookingId;
+    private int status;
+    private String error;
+    private BookingDto booking;
+}
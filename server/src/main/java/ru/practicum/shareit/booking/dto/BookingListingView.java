@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка списка бронирований: поля бронирования, название вещи и имя букера без загрузки сущностей.
+ */
+public record BookingListingView(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                                 Long itemId, String itemName, Long bookerId, String bookerName) {
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface ItemBookingView {
+
+    Long getItemId();
+
+    Long getBookingId();
+
+    Long getBookerId();
+
+    String getKind();
+
+    default boolean isLast() {
+        return "LAST".equals(getKind());
+    }
+}
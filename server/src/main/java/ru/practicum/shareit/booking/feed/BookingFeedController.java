@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.feed;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/bookings/events")
+public class BookingFeedController {
+
+    private final BookingFeedRegistry bookingFeedRegistry;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("/bookings/events GET выполнение запроса. userId={}", userId);
+        return bookingFeedRegistry.subscribe(userId);
+    }
+}
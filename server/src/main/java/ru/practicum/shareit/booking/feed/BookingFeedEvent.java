@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.feed;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Событие ленты: id события outbox, его тип и JSON бронирования. {@link #HEARTBEAT} — пинг без данных.
+ */
+record BookingFeedEvent(long id, String type, String payload) {
+
+    static final BookingFeedEvent HEARTBEAT = new BookingFeedEvent(0, null, null);
+
+    SseEmitter.SseEventBuilder toSse() {
+        if (this == HEARTBEAT) {
+            return SseEmitter.event().comment("ping");
+        }
+        return SseEmitter.event()
+                .id(String.valueOf(id))
+                .name(type)
+                .data(payload, MediaType.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Журнал ленты бронирований (таблица booking_feed_events). События бронирований попадают в него
+ * из OutboxRelay того экземпляра, который забрал строку outbox_events, в той же транзакции, что
+ * и удаление строки, поэтому каждое событие записывается в журнал один раз. Читают журнал все
+ * экземпляры: {@link BookingFeedRegistry} каждого идет по нему своим курсором.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class BookingFeedLog {
+
+    private static final String BOOKING = "BOOKING";
+
+    private static final String INSERT = "insert into booking_feed_events (event_id, event_type, booker_id, " +
+            "owner_id, payload, created) values (:eventId, :eventType, :bookerId, :ownerId, :payload, :created)";
+
+    private static final String FIND_AFTER = "select * from booking_feed_events where id > :afterId " +
+            "order by id limit :size";
+
+    private static final String MAX_ID = "select coalesce(max(id), 0) from booking_feed_events";
+
+    private static final String DELETE_OLDER = "delete from booking_feed_events where created < :before";
+
+    private static final RowMapper<Entry> ENTRY = (row, rowNum) -> new Entry(
+            row.getLong("id"),
+            row.getLong("booker_id"),
+            row.getObject("owner_id", Long.class),
+            new BookingFeedEvent(row.getLong("event_id"), row.getString("event_type"), row.getString("payload")));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ItemRepository itemRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Записывает событие бронирования, опубликованное OutboxRelay. Адресаты определяются здесь:
+     * владелец берется из L2-кэша вещей, и читающим журнал экземплярам не нужно искать вещь.
+     */
+    @EventListener
+    public void onOutboxEvent(OutboxEvent event) {
+        if (!BOOKING.equals(event.type().getAggregateType())) {
+            return;
+        }
+        JsonNode booking;
+        try {
+            booking = objectMapper.readTree(event.payload());
+        } catch (JsonProcessingException e) {
+            log.warn("Событие id={} пропущено лентой: не удалось разобрать payload", event.id(), e);
+            return;
+        }
+        long bookerId = booking.path("booker").path("id").asLong();
+        long itemId = booking.path("item").path("id").asLong();
+        // Вещь могла быть удалена, тогда событие получит только букер.
+        Long ownerId = itemRepository.findById(itemId)
+                .map(item -> item.getOwner().getId())
+                .filter(id -> id != bookerId)
+                .orElse(null);
+        jdbcTemplate.update(INSERT, new MapSqlParameterSource()
+                .addValue("eventId", event.id())
+                .addValue("eventType", event.type().name())
+                .addValue("bookerId", bookerId)
+                .addValue("ownerId", ownerId)
+                .addValue("payload", event.payload())
+                .addValue("created", LocalDateTime.now()));
+    }
+
+    public List<Entry> findAfter(long afterId, int size) {
+        return jdbcTemplate.query(FIND_AFTER, Map.of("afterId", afterId, "size", size), ENTRY);
+    }
+
+    public long maxId() {
+        Long maxId = jdbcTemplate.queryForObject(MAX_ID, Map.of(), Long.class);
+        return maxId != null ? maxId : 0;
+    }
+
+    public int deleteOlderThan(LocalDateTime before) {
+        return jdbcTemplate.update(DELETE_OLDER, Map.of("before", before));
+    }
+
+    /**
+     * Строка журнала: событие и его адресаты; ownerId пуст, если владелец — сам букер или вещь удалена.
+     */
+    public record Entry(long id, long bookerId, Long ownerId, BookingFeedEvent event) {
+    }
+}
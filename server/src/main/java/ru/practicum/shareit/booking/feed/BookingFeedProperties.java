@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking.feed;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.feed")
+public class BookingFeedProperties {
+
+    /**
+     * Сколько событий ждет отправки одному подписчику; при переполнении подписка закрывается.
+     */
+    private int bufferSize = 256;
+
+    /**
+     * Одновременных подписок одного пользователя; новая подписка сверх лимита закрывает самую старую.
+     */
+    private int maxSubscriptionsPerUser = 4;
+
+    /**
+     * Интервал комментариев-пингов: должен быть меньше таймаута чтения гейтвея.
+     */
+    private Duration heartbeat = Duration.ofSeconds(5);
+
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Читать ли журнал ленты по расписанию; в тестах выключено, там журнал читают вызовом poll.
+     */
+    private boolean pollEnabled = true;
+
+    /**
+     * Как часто экземпляр читает журнал ленты: задержка доставки события подписчику.
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * Сколько строк журнала читать за один раз.
+     */
+    private int pollBatchSize = 1000;
+
+    /**
+     * Сколько хранятся строки журнала; экземпляр, отставший дольше, теряет события.
+     */
+    private Duration retention = Duration.ofMinutes(10);
+}
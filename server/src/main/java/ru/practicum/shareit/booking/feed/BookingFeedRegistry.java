@@ -0,0 +1,231 @@
+package ru.practicum.shareit.booking.feed;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.user.service.UserExistenceRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Лента изменений бронирований по SSE: создание, подтверждение и отклонение приходят букеру
+ * и владельцу вещи. Подписки хранятся по id пользователя, поэтому событие доходит до адресатов
+ * двумя поисками в хэш-таблице, без перебора всех подключений.
+ * <p>
+ * Источник событий — {@link BookingFeedLog}: OutboxRelay любого экземпляра пишет в него события
+ * бронирований, а реестр каждого экземпляра раз в {@code shareit.feed.poll-interval} читает журнал своим
+ * курсором и раздает новые строки своим подписчикам. Так событие доходит до подписчиков всех экземпляров,
+ * а не только того, чей OutboxRelay забрал строку outbox_events.
+ * <p>
+ * Строки журнала фиксируются не в порядке id: транзакции публикации разных экземпляров идут параллельно.
+ * Поэтому курсор стоит перед первым id, которого реестр еще не видел, а уже отправленные строки за ним
+ * запоминаются и повторно не раздаются. Пропуск в id, не заполнившийся за {@link #GAP_TIMEOUT}, считается
+ * откатом вставки, и курсор перескакивает его. Новый экземпляр начинает с конца журнала, старых событий не
+ * раздает. Клиент отбрасывает id, которые уже видел, поэтому редкий повтор события ему не мешает.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(BookingFeedProperties.class)
+public class BookingFeedRegistry {
+
+    /**
+     * Сколько ждать строку журнала с пропущенным id, прежде чем считать ее вставку откаченной.
+     */
+    static final Duration GAP_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ConcurrentMap<Long, List<BookingFeedSubscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+    private final UserExistenceRegistry userExistenceRegistry;
+    private final BookingFeedLog bookingFeedLog;
+    private final BookingFeedProperties properties;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("booking-feed-scheduler").daemon().factory());
+    private final Counter overflows;
+
+    // Курсор и отправленные строки за ним меняет только poll, который синхронизирован.
+    private final Set<Long> delivered = new HashSet<>();
+    private long cursor;
+    private Long gapSince;
+    private LocalDateTime lastPurge = LocalDateTime.now();
+
+    public BookingFeedRegistry(UserExistenceRegistry userExistenceRegistry, BookingFeedLog bookingFeedLog,
+                               BookingFeedProperties properties, MeterRegistry meterRegistry) {
+        this.userExistenceRegistry = userExistenceRegistry;
+        this.bookingFeedLog = bookingFeedLog;
+        this.properties = properties;
+        this.cursor = bookingFeedLog.maxId();
+        this.overflows = meterRegistry.counter("shareit.feed.overflows");
+        Gauge.builder("shareit.feed.subscriptions", subscriptionCount, AtomicInteger::get)
+                .description("Открытые подписки на ленту бронирований")
+                .register(meterRegistry);
+        long heartbeat = properties.getHeartbeat().toMillis();
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+        if (properties.isPollEnabled()) {
+            long interval = properties.getPollInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::pollSafely, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public SseEmitter subscribe(long userId) {
+        userExistenceRegistry.checkExists(userId);
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        BookingFeedSubscription subscription = new BookingFeedSubscription(userId, emitter,
+                properties.getBufferSize(), senders, overflows);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+
+        List<BookingFeedSubscription> evicted = new ArrayList<>();
+        subscriptions.compute(userId, (id, current) -> {
+            List<BookingFeedSubscription> updated = new ArrayList<>(current != null ? current : List.of());
+            updated.add(subscription);
+            while (updated.size() > properties.getMaxSubscriptionsPerUser()) {
+                evicted.add(updated.removeFirst());
+            }
+            return List.copyOf(updated);
+        });
+        subscriptionCount.addAndGet(1 - evicted.size());
+        evicted.forEach(BookingFeedSubscription::close);
+        log.info("Пользователь с id={} подписался на ленту бронирований", userId);
+        return emitter;
+    }
+
+    /**
+     * Раздает подписчикам этого экземпляра строки журнала, которые он еще не отправлял, и сдвигает курсор.
+     *
+     * @return число розданных строк
+     */
+    synchronized int poll() {
+        List<BookingFeedLog.Entry> entries = bookingFeedLog.findAfter(cursor, properties.getPollBatchSize());
+        int dispatched = 0;
+        for (BookingFeedLog.Entry entry : entries) {
+            if (!delivered.add(entry.id())) {
+                continue;
+            }
+            dispatched++;
+            if (subscriptions.isEmpty()) {
+                continue;
+            }
+            publish(entry.bookerId(), entry.event());
+            if (entry.ownerId() != null) {
+                publish(entry.ownerId(), entry.event());
+            }
+        }
+        advanceCursor();
+        purgeExpired();
+        return dispatched;
+    }
+
+        int subscriptionCount() {
+        return subscriptionCount.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        subscriptions.values().forEach(list -> list.forEach(BookingFeedSubscription::close));
+        senders.shutdown();
+    }
+
+    private void publish(long userId, BookingFeedEvent event) {
+        List<BookingFeedSubscription> userSubscriptions = subscriptions.get(userId);
+        if (userSubscriptions == null) {
+            return;
+        }
+        for (BookingFeedSubscription subscription : userSubscriptions) {
+            if (!subscription.offer(event)) {
+                remove(subscription);
+            }
+        }
+    }
+
+    private void advanceCursor() {
+        while (delivered.remove(cursor + 1)) {
+            cursor++;
+        }
+        if (delivered.isEmpty()) {
+            gapSince = null;
+            return;
+        }
+        long now = System.nanoTime();
+        if (gapSince == null) {
+            gapSince = now;
+        } else if (now - gapSince > GAP_TIMEOUT.toNanos()) {
+            long next = Collections.min(delivered);
+            log.debug("Строки журнала ленты с id={}..{} не появились за {}, пропускаем", cursor + 1, next - 1,
+                    GAP_TIMEOUT);
+            cursor = next - 1;
+            gapSince = null;
+            advanceCursor();
+        }
+    }
+
+    private void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        if (lastPurge.isAfter(now.minus(properties.getRetention()))) {
+            return;
+        }
+        lastPurge = now;
+        int deleted = bookingFeedLog.deleteOlderThan(now.minus(properties.getRetention()));
+        if (deleted > 0) {
+            log.debug("Из журнала ленты удалено {} устаревших строк", deleted);
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Ошибка чтения журнала ленты бронирований", e);
+        }
+    }
+
+    private void heartbeat() {
+        try {
+            subscriptions.values().forEach(list -> list.forEach(subscription -> {
+                if (!subscription.offer(BookingFeedEvent.HEARTBEAT)) {
+                    remove(subscription);
+                }
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Ошибка отправки пингов ленты бронирований", e);
+        }
+    }
+
+    private void remove(BookingFeedSubscription subscription) {
+        subscription.close();
+        AtomicBoolean removed = new AtomicBoolean();
+        subscriptions.computeIfPresent(subscription.getUserId(), (id, current) -> {
+            if (!current.contains(subscription)) {
+                return current;
+            }
+            removed.set(true);
+            List<BookingFeedSubscription> updated = new ArrayList<>(current);
+            updated.remove(subscription);
+            return updated.isEmpty() ? null : List.copyOf(updated);
+        });
+        if (removed.get()) {
+            subscriptionCount.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.feed;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Подписка одного клиента: ограниченная очередь и отправка из отдельного виртуального потока.
+ * Публикующий поток только кладет событие в очередь и не ждет медленный сокет; если очередь
+ * заполнена, подписка закрывается, и клиент после переподключения перечитывает список бронирований.
+ */
+@Slf4j
+class BookingFeedSubscription {
+
+    @Getter
+    private final long userId;
+    @Getter
+    private final SseEmitter emitter;
+    private final BlockingQueue<BookingFeedEvent> queue;
+    private final Executor executor;
+    private final Counter overflows;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    BookingFeedSubscription(long userId, SseEmitter emitter, int bufferSize, Executor executor,
+                            Counter overflows) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.executor = executor;
+        this.overflows = overflows;
+    }
+
+    /**
+     * @return false, если подписка закрыта или только что закрыта из-за переполнения
+     */
+    boolean offer(BookingFeedEvent event) {
+        if (closed.get()) {
+            return false;
+        }
+        if (!queue.offer(event)) {
+            log.info("Подписчик пользователя с id={} не успевает читать ленту, подписка закрыта", userId);
+            overflows.increment();
+            close();
+            return false;
+        }
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+        return true;
+    }
+
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            queue.clear();
+            emitter.complete();
+        }
+    }
+
+    private void drain() {
+        do {
+            BookingFeedEvent event;
+            while (!closed.get() && (event = queue.poll()) != null) {
+                try {
+                    emitter.send(event.toSse());
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Подписчик пользователя с id={} отключился: {}", userId, e.getMessage());
+                    close();
+                }
+            }
+            draining.set(false);
+        } while (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true));
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.mapper;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingListingView;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -31,6 +32,11 @@ public class BookingMapper {
         return dto;
     }
 
+    public static BookingDto mapToDto(BookingListingView view) {
+        return new BookingDto(view.id(), new ItemShortDto(view.itemId(), view.itemName()),
+                new UserShortDto(view.bookerId(), view.bookerName()), view.start(), view.end(), view.status().name());
+    }
+
     public static Booking mapToNewBooking(BookingRequestDto dto, Item item, User booker) {
         Booking booking = new Booking();
         booking.setItem(item);
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Пакетные операции с бронированиями в обход контекста персистентности: вставка одним JDBC-пакетом
+ * и смена статуса одним UPDATE по множеству id. Сущности, уже загруженные в текущую сессию,
+ * эти изменения не видят.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingBatchRepository {
+
+    private static final String INSERT = "insert into bookings (start_date, end_date, item_id, booker_id, status) " +
+            "values (?, ?, ?, ?, ?)";
+
+    private static final String LOCK_STATUSES = "select id, status from bookings where id in (:ids) " +
+            "order by id for update";
+
+    private static final String UPDATE_STATUSES = "update bookings set status = :status " +
+            "where id in (:ids) and status = :expected";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Вставляет бронирования одним пакетом и проставляет им сгенерированные id.
+     */
+    public void insert(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        List<Long> ids = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT, new String[]{"id"})) {
+                for (Booking booking : bookings) {
+                    insert.setTimestamp(1, Timestamp.valueOf(booking.getStart()));
+                    insert.setTimestamp(2, Timestamp.valueOf(booking.getEnd()));
+                    insert.setLong(3, booking.getItem().getId());
+                    insert.setLong(4, booking.getBooker().getId());
+                    insert.setString(5, booking.getStatus().name());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                List<Long> generated = new ArrayList<>(bookings.size());
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        generated.add(keys.getLong(1));
+                    }
+                }
+                return generated;
+            }
+        });
+        if (ids == null || ids.size() != bookings.size()) {
+            throw new IllegalStateException("Драйвер вернул " + (ids == null ? 0 : ids.size()) +
+                    " id для " + bookings.size() + " вставленных бронирований");
+        }
+        for (int i = 0; i < bookings.size(); i++) {
+            bookings.get(i).setId(ids.get(i));
+        }
+    }
+
+    /**
+     * Блокирует строки бронирований в порядке id и возвращает их текущие статусы.
+     */
+    public Map<Long, BookingStatus> lockStatuses(Collection<Long> bookingIds) {
+        Map<Long, BookingStatus> statuses = new HashMap<>();
+        if (bookingIds.isEmpty()) {
+            return statuses;
+        }
+        jdbcTemplate.query(LOCK_STATUSES, new MapSqlParameterSource("ids", bookingIds), row -> {
+            statuses.put(row.getLong("id"), BookingStatus.valueOf(row.getString("status")));
+        });
+        return statuses;
+    }
+
+    public int updateStatuses(Collection<Long> bookingIds, BookingStatus expected, BookingStatus status) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(UPDATE_STATUSES, new MapSqlParameterSource()
+                .addValue("ids", bookingIds)
+                .addValue("expected", expected.name())
+                .addValue("status", status.name()));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.booking.dto.BookingListingView;
+import ru.practicum.shareit.booking.model.RequestState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Списки бронирований букера и владельца в порядке (start, id) по убыванию, страница задается смещением
+ * или курсором (start, id) последней полученной записи.
+ */
+public interface BookingListingRepository {
+
+    List<BookingListingView> findBookerListing(long bookerId, RequestState state, LocalDateTime now,
+                                               ScrollPosition position, Limit limit);
+
+    List<BookingListingView> findOwnerListing(long ownerId, RequestState state, LocalDateTime now,
+                                              ScrollPosition position, Limit limit);
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.booking.dto.BookingListingView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.RequestState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Списки читаются JPQL-выражением конструктора: Hibernate возвращает записи {@link BookingListingView}
+ * прямо из строк результата и не создает сущностей бронирования, вещи и букера. Прокрутка Spring Data
+ * для строковых запросов не поддерживается, поэтому смещение и курсор применяются здесь.
+ */
+public class BookingListingRepositoryImpl implements BookingListingRepository {
+
+    private static final String SELECT = "select new ru.practicum.shareit.booking.dto.BookingListingView(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, u.id, u.name) " +
+            "from Booking b join b.item i join b.booker u ";
+
+    private static final String AFTER_CURSOR = " and (b.start < :cursorStart " +
+            "or (b.start = :cursorStart and b.id < :cursorId))";
+
+    private static final String ORDER = " order by b.start desc, b.id desc";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingListingView> findBookerListing(long bookerId, RequestState state, LocalDateTime now,
+                                                      ScrollPosition position, Limit limit) {
+        return find("where b.booker.id = :userId", bookerId, state, now, position, limit);
+    }
+
+    @Override
+    public List<BookingListingView> findOwnerListing(long ownerId, RequestState state, LocalDateTime now,
+                                                     ScrollPosition position, Limit limit) {
+        return find("where i.owner.id = :userId", ownerId, state, now, position, limit);
+    }
+
+    private List<BookingListingView> find(String where, long userId, RequestState state, LocalDateTime now,
+                                          ScrollPosition position, Limit limit) {
+        String condition = switch (state) {
+            case CURRENT -> " and b.start < :now and b.end > :now";
+            case PAST -> " and b.end < :now";
+            case FUTURE -> " and b.start > :now";
+            case WAITING, REJECTED -> " and b.status = :status";
+            default -> "";
+        };
+        Map<String, Object> keys = position instanceof KeysetScrollPosition keyset ? keyset.getKeys() : Map.of();
+        String jpql = SELECT + where + condition + (keys.isEmpty() ? "" : AFTER_CURSOR) + ORDER;
+
+        TypedQuery<BookingListingView> query = entityManager.createQuery(jpql, BookingListingView.class)
+                .setParameter("userId", userId);
+        switch (state) {
+            case CURRENT, PAST, FUTURE -> query.setParameter("now", now);
+            case WAITING -> query.setParameter("status", BookingStatus.WAITING);
+            case REJECTED -> query.setParameter("status", BookingStatus.REJECTED);
+            default -> {
+            }
+        }
+        if (!keys.isEmpty()) {
+            query.setParameter("cursorStart", keys.get("start"))
+                    .setParameter("cursorId", keys.get("id"));
+        } else if (position instanceof OffsetScrollPosition offset && !offset.isInitial()) {
+            // offset(n) указывает на последнюю полученную запись, страница начинается со следующей
+            query.setFirstResult(Math.toIntExact(offset.getOffset() + 1));
+        }
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query.getResultList();
+    }
+}
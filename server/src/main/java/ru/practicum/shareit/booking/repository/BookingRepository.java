@@ -1,46 +1,47 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.timeline.TimelineSlot;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    @Query("select b from Booking b where b.item.id in :itemIds and b.status = 'APPROVED' order by b.start asc")
-    List<Booking> findByItemIdsAndStatusIsApprovedOrderByStartTimeAsc(List<Long> itemIds);
-
-    Booking findFirstByItemIdAndStartBeforeAndStatusOrderByEndDesc(
-            Long itemId, LocalDateTime now, BookingStatus status);
-
-    Booking findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
-            Long itemId, LocalDateTime now, BookingStatus status);
+import java.util.Optional;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingListingRepository {
+
+    /**
+     * Хронологии бронирований вещей: текущие и будущие одобренные бронирования
+     * и последнее завершившееся одобренное бронирование каждой вещи.
+     */
+    @Query("select new ru.practicum.shareit.booking.timeline.TimelineSlot(b.item.id, b.id, b.booker.id, " +
+            "b.start, b.end, b.status) " +
+            "from Booking b " +
+            "where b.item.id in :itemIds " +
+            "  and b.status = :approved " +
+            "  and (b.end >= :now " +
+            "    or b.end = (select max(p.end) from Booking p " +
+            "                where p.item.id = b.item.id and p.status = :approved and p.end < :now))")
+    List<TimelineSlot> findTimelineSlots(Collection<Long> itemIds, BookingStatus approved, LocalDateTime now);
+
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByIdIn(Collection<Long> ids);
+
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId, Collection<BookingStatus> statuses,
+                                                               LocalDateTime end, LocalDateTime start);
+
+    boolean existsByItemIdAndIdNotAndStatusAndStartBeforeAndEndAfter(Long itemId, Long bookingId,
+                                                                     BookingStatus status, LocalDateTime end,
+                                                                     LocalDateTime start);
 
     Boolean existsByItem_idAndBooker_idAndEndBeforeAndStatus(Long itemId, Long bookerId, LocalDateTime now,
                                                              BookingStatus status);
-
-    List<Booking> findByBookerIdOrderByStartDesc(Long bookerId);
-
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId);
-
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long bookerId, LocalDateTime now1,
-                                                                          LocalDateTime now2);
-
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime now);
-
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime now);
-
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
-
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long ownerId, LocalDateTime now1,
-                                                                             LocalDateTime now2);
-
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime now);
-
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime now);
-
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status);
 }
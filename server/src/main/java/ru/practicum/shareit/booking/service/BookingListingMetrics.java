@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.RequestState;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Счетчики запросов списков бронирований по значению state, отдельно для арендатора и владельца.
+ * Счетчики создаются заранее, чтобы запрос не искал метр в реестре.
+ */
+@Component
+public class BookingListingMetrics {
+
+    public static final String LISTINGS_COUNTER = "shareit.booking.listings";
+
+    private final Map<RequestState, Counter> bookerListings;
+    private final Map<RequestState, Counter> ownerListings;
+
+    public BookingListingMetrics(MeterRegistry meterRegistry) {
+        this.bookerListings = counters(meterRegistry, "booker");
+        this.ownerListings = counters(meterRegistry, "owner");
+    }
+
+    public void bookerListing(RequestState state) {
+        bookerListings.get(state).increment();
+    }
+
+    public void ownerListing(RequestState state) {
+        ownerListings.get(state).increment();
+    }
+
+    private static Map<RequestState, Counter> counters(MeterRegistry meterRegistry, String role) {
+        Map<RequestState, Counter> counters = new EnumMap<>(RequestState.class);
+        for (RequestState state : RequestState.values()) {
+            counters.put(state, Counter.builder(LISTINGS_COUNTER)
+                    .description("Запросы списков бронирований")
+                    .tag("role", role)
+                    .tag("state", state.name())
+                    .register(meterRegistry));
+        }
+        return counters;
+    }
+}
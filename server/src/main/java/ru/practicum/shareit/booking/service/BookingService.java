@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
@@ -11,10 +13,16 @@ public interface BookingService {
 
     BookingDto approveBooking(long userId, long bookingId, boolean approved);
 
+    List<BookingBatchResultDto> createBookings(long userId, List<BookingRequestDto> bookingDtos);
+
+    List<BookingBatchResultDto> approveBookings(long userId, List<Long> bookingIds, boolean approved);
+
     BookingDto getBookingById(long userId, long bookingId);
 
-    List<BookingDto> getBookingsByUser(long userId, String state);
+    List<BookingDto> getBookingsByUser(long userId, String state, int from, int size,
+                                       LocalDateTime cursorStart, Long cursorId);
 
-    List<BookingDto> getOwnerBookings(long ownerId, String state);
+    List<BookingDto> getOwnerBookings(long ownerId, String state, int from, int size,
+                                      LocalDateTime cursorStart, Long cursorId);
 
 }
@@ -1,51 +1,81 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.RequestState;
+import ru.practicum.shareit.booking.repository.BookingBatchRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.ItemTimelineRegistry;
+import ru.practicum.shareit.booking.timeline.TimelineSlot;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.NotItemOwnerException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.MetricsConfig;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceRegistry;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceRegistry userExistenceRegistry;
     private final ItemRepository itemRepository;
+    private final BookingListingMetrics bookingListingMetrics;
+    private final ItemTimelineRegistry itemTimelineRegistry;
+    private final BookingBatchRepository bookingBatchRepository;
+    private final OutboxRepository outboxRepository;
 
     @Override
     @Transactional
     public BookingDto createBooking(long userId, BookingRequestDto bookingDto) {
 
         log.info("Создание нового бронирования пользователем с id={}", userId);
-        User booker = checkUserExisting(userId);
+        User booker = userExistenceRegistry.getReference(userId);
         Item item = checkItemExisting(bookingDto);
 
         if (!item.getAvailable()) {
             throw new IllegalArgumentException("Вещь с id =" + item.getId() + " недоступна для бронирования.");
         }
+        if (!isFree(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new BookingOverlapException("Вещь с id =" + item.getId() + " уже забронирована на эти даты.");
+        }
 
-        Booking booking = BookingMapper.mapToNewBooking(bookingDto, item, booker);
-
-        return BookingMapper.mapToDto(bookingRepository.save(booking));
+        Booking booking = bookingRepository.save(BookingMapper.mapToNewBooking(bookingDto, item, booker));
+        itemTimelineRegistry.record(booking);
+        BookingDto result = BookingMapper.mapToDto(booking);
+        outboxRepository.append(OutboxEventType.BOOKING_CREATED, booking.getId(), result);
+        return result;
     }
 
     @Override
@@ -57,11 +87,135 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getItem().getOwner().getId() != userId) {
             throw new NotItemOwnerException("Пользователь не является владельцем вещи");
         }
-        if (booking.getStatus() != BookingStatus.WAITING) {
+        // Вещь и бронирование блокируются в обеих ветках: иначе параллельные подтверждение и отклонение
+        // одного бронирования оба увидели бы WAITING. Статус перечитывается уже под блокировкой.
+        itemRepository.findByIdForUpdate(booking.getItem().getId());
+        if (bookingBatchRepository.lockStatuses(List.of(bookingId)).get(bookingId) != BookingStatus.WAITING) {
             throw new IllegalArgumentException("Некорректный статус бронирования. Статус уже был изменен.");
         }
+        if (approved && !isFreeOfApproved(booking)) {
+            throw new BookingOverlapException("На эти даты уже подтверждено другое бронирование вещи.");
+        }
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return BookingMapper.mapToDto(bookingRepository.save(booking));
+        booking = bookingRepository.save(booking);
+        itemTimelineRegistry.record(booking);
+        BookingDto result = BookingMapper.mapToDto(booking);
+        outboxRepository.append(approved ? OutboxEventType.BOOKING_APPROVED : OutboxEventType.BOOKING_REJECTED,
+                booking.getId(), result);
+        return result;
+    }
+
+    /**
+     * Создает бронирования пакетом в одной транзакции. Вещи блокируются одним запросом в порядке id,
+     * принятые бронирования вставляются одним JDBC-пакетом; отклоненные позиции не прерывают пакет.
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(long userId, List<BookingRequestDto> bookingDtos) {
+        log.info("Пакетное создание {} бронирований пользователем с id={}", bookingDtos.size(), userId);
+        User booker = userExistenceRegistry.getReference(userId);
+        List<Long> itemIds = bookingDtos.stream().map(BookingRequestDto::getItemId).distinct().sorted().toList();
+        Map<Long, Item> items = itemRepository.findAllByIdForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingDtos.size());
+        List<Booking> accepted = new ArrayList<>();
+        Map<Booking, BookingBatchResultDto> acceptedResults = new IdentityHashMap<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingRequestDto bookingDto = bookingDtos.get(i);
+            Item item = items.get(bookingDto.getItemId());
+            if (item == null) {
+                results.add(failure(i, null, HttpStatus.NOT_FOUND,
+                        "Вещь с id=" + bookingDto.getItemId() + " не найдена"));
+            } else if (!item.getAvailable()) {
+                results.add(failure(i, null, HttpStatus.BAD_REQUEST,
+                        "Вещь с id =" + item.getId() + " недоступна для бронирования."));
+            } else if (!isFree(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+                results.add(failure(i, null, HttpStatus.CONFLICT,
+                        "Вещь с id =" + item.getId() + " уже забронирована на эти даты."));
+            } else {
+                Booking booking = BookingMapper.mapToNewBooking(bookingDto, item, booker);
+                BookingBatchResultDto result = new BookingBatchResultDto(i, null, HttpStatus.OK.value(), null, null);
+                accepted.add(booking);
+                acceptedResults.put(booking, result);
+                results.add(result);
+            }
+        }
+
+        bookingBatchRepository.insert(accepted);
+        Map<Long, BookingDto> created = new LinkedHashMap<>();
+        for (Booking booking : accepted) {
+            itemTimelineRegistry.record(booking);
+            BookingBatchResultDto result = acceptedResults.get(booking);
+            result.setBookingId(booking.getId());
+            result.setBooking(BookingMapper.mapToDto(booking));
+            created.put(booking.getId(), result.getBooking());
+        }
+        outboxRepository.appendAll(OutboxEventType.BOOKING_CREATED, created);
+        log.info("Создано {} из {} бронирований", accepted.size(), bookingDtos.size());
+        return results;
+    }
+
+    /**
+     * Подтверждает или отклоняет пакет бронирований одним UPDATE. Сначала блокируются вещи в порядке id,
+     * как в одиночном подтверждении, затем строки бронирований.
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> approveBookings(long userId, List<Long> bookingIds, boolean approved) {
+        log.info("Пакетное подтверждение {} бронирований пользователем с id={}, approved={}", bookingIds.size(),
+                userId, approved);
+        Set<Long> distinctIds = new LinkedHashSet<>(bookingIds);
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(distinctIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Booking> owned = bookings.values().stream()
+                .filter(booking -> booking.getItem().getOwner().getId() == userId)
+                .toList();
+        itemRepository.findAllByIdForUpdate(owned.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .sorted()
+                .toList());
+        Map<Long, BookingStatus> statuses = bookingBatchRepository.lockStatuses(owned.stream()
+                .map(Booking::getId)
+                .toList());
+
+        BookingStatus newStatus = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        List<BookingBatchResultDto> results = new ArrayList<>(distinctIds.size());
+        List<Booking> accepted = new ArrayList<>();
+        Map<Long, BookingDto> changed = new LinkedHashMap<>();
+        for (Long bookingId : distinctIds) {
+            Booking booking = bookings.get(bookingId);
+            if (booking == null) {
+                results.add(failure(null, bookingId, HttpStatus.NOT_FOUND,
+                        "Бронирование с id=" + bookingId + " не найдено"));
+            } else if (booking.getItem().getOwner().getId() != userId) {
+                results.add(failure(null, bookingId, HttpStatus.FORBIDDEN,
+                        "Пользователь не является владельцем вещи"));
+            } else if (statuses.get(bookingId) != BookingStatus.WAITING) {
+                results.add(failure(null, bookingId, HttpStatus.CONFLICT,
+                        "Некорректный статус бронирования. Статус уже был изменен."));
+            } else if (approved && (!isFreeOfApproved(booking)
+                    || overlapsAccepted(accepted, booking.getItem().getId(), booking.getStart(), booking.getEnd()))) {
+                results.add(failure(null, bookingId, HttpStatus.CONFLICT,
+                        "На эти даты уже подтверждено другое бронирование вещи."));
+            } else {
+                // Сущность не меняется: иначе Hibernate при сбросе обновил бы каждую строку отдельно.
+                itemTimelineRegistry.record(TimelineSlot.of(booking).withStatus(newStatus));
+                BookingDto dto = BookingMapper.mapToDto(booking);
+                dto.setStatus(newStatus.name());
+                accepted.add(booking);
+                changed.put(bookingId, dto);
+                results.add(new BookingBatchResultDto(null, bookingId, HttpStatus.OK.value(), null, dto));
+            }
+        }
+
+        bookingBatchRepository.updateStatuses(accepted.stream().map(Booking::getId).toList(),
+                BookingStatus.WAITING, newStatus);
+        outboxRepository.appendAll(approved ? OutboxEventType.BOOKING_APPROVED : OutboxEventType.BOOKING_REJECTED,
+                changed);
+        log.info("Статус {} установлен {} из {} бронирований", newStatus, accepted.size(), distinctIds.size());
+        return results;
     }
 
     @Override
@@ -78,47 +232,79 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getBookingsByUser(long userId, String state) {
-        log.info("Получение списка бронирований пользователя с id={}, state={}", userId, state);
-        checkUserExisting(userId);
+    public List<BookingDto> getBookingsByUser(long userId, String state, int from, int size,
+                                              LocalDateTime cursorStart, Long cursorId) {
+        log.info("Получение списка бронирований пользователя с id={}, state={}, from={}, size={}, cursor=({}, {})",
+                userId, state, from, size, cursorStart, cursorId);
+        userExistenceRegistry.checkExists(userId);
         LocalDateTime now = LocalDateTime.now();
+        ScrollPosition position = toScrollPosition(from, cursorStart, cursorId);
+        Limit limit = Limit.of(size);
+        RequestState requestState = RequestState.from(state);
+        bookingListingMetrics.bookerListing(requestState);
 
-        List<Booking> bookingList = switch (RequestState.from(state)) {
-            case CURRENT -> bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, now, now);
-            case PAST -> bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(userId, now);
-            case FUTURE -> bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(userId, now);
-            case WAITING -> bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING);
-            case REJECTED -> bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED);
-            default -> bookingRepository.findByBookerIdOrderByStartDesc(userId);
-        };
-
-        return bookingList.stream().map(BookingMapper::mapToDto).toList();
+        return bookingRepository.findBookerListing(userId, requestState, now, position, limit).stream()
+                .map(BookingMapper::mapToDto)
+                .toList();
     }
 
     @Override
-    public List<BookingDto> getOwnerBookings(long ownerId, String state) {
-        log.info("Получение списка бронирований для владельца с id={}, state={}", ownerId, state);
-        checkUserExisting(ownerId);
+    public List<BookingDto> getOwnerBookings(long ownerId, String state, int from, int size,
+                                             LocalDateTime cursorStart, Long cursorId) {
+        log.info("Получение списка бронирований для владельца с id={}, state={}, from={}, size={}, cursor=({}, {})",
+                ownerId, state, from, size, cursorStart, cursorId);
+        userExistenceRegistry.checkExists(ownerId);
         LocalDateTime now = LocalDateTime.now();
+        ScrollPosition position = toScrollPosition(from, cursorStart, cursorId);
+        Limit limit = Limit.of(size);
+        RequestState requestState = RequestState.from(state);
+        bookingListingMetrics.ownerListing(requestState);
+
+        return bookingRepository.findOwnerListing(ownerId, requestState, now, position, limit).stream()
+                .map(BookingMapper::mapToDto)
+                .toList();
+    }
+
+    /**
+     * Курсор (start, id) последней полученной записи имеет приоритет над смещением from:
+     * поиск по ключу не зависит от глубины страницы, в отличие от OFFSET.
+     */
+    private ScrollPosition toScrollPosition(int from, LocalDateTime cursorStart, Long cursorId) {
+        if (cursorStart != null && cursorId != null) {
+            return ScrollPosition.forward(Map.of("start", cursorStart, "id", cursorId));
+        }
+        return from == 0 ? ScrollPosition.offset() : ScrollPosition.offset(from - 1);
+    }
+
+    /**
+     * Пересечения проверяются запросом к БД под блокировкой строки вещи (индекс ix_bookings_item_end):
+     * хронология в памяти не видит бронирований, записанных другими экземплярами сервера.
+     * Создание бронирования блокируют только одобренные бронирования: ожидающие заявки на одни даты
+     * допустимы, из них владелец подтвердит не более одной.
+     */
+    private boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        return !bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId,
+                List.of(BookingStatus.APPROVED), end, start);
+    }
+
+    private boolean isFreeOfApproved(Booking booking) {
+        return !bookingRepository.existsByItemIdAndIdNotAndStatusAndStartBeforeAndEndAfter(booking.getItem().getId(),
+                booking.getId(), BookingStatus.APPROVED, booking.getEnd(), booking.getStart());
+    }
 
-        List<Booking> bookingList = switch (RequestState.from(state)) {
-            case CURRENT ->
-                    bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(ownerId, now, now);
-            case PAST -> bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(ownerId, now);
-            case FUTURE -> bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId, now);
-            case WAITING ->
-                    bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.WAITING);
-            case REJECTED ->
-                    bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.REJECTED);
-            default -> bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId);
-        };
-
-        return bookingList.stream().map(BookingMapper::mapToDto).toList();
+    /**
+     * Пересечение с бронированиями, уже принятыми в текущем пакете: при проверке по БД
+     * они еще не видны.
+     */
+    private boolean overlapsAccepted(List<Booking> accepted, long itemId, LocalDateTime start, LocalDateTime end) {
+        return accepted.stream().anyMatch(booking -> booking.getItem().getId() == itemId
+                && booking.getStart().isBefore(end) && booking.getEnd().isAfter(start));
     }
 
-    private User checkUserExisting(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id=" + userId + " не найден"));
+    private BookingBatchResultDto failure(Integer index, Long bookingId, HttpStatus status, String error) {
+        log.info("Позиция пакета отклонена: index={}, bookingId={}, status={}, {}", index, bookingId,
+                status.value(), error);
+        return new BookingBatchResultDto(index, bookingId, status.value(), error, null);
     }
 
     private Booking checkBookingExisting(Long bookingId) {
@@ -126,8 +312,12 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new NotFoundException("Бронирование с id=" + bookingId + " не найдено"));
     }
 
+    /**
+     * Блокирует строку вещи до конца транзакции: параллельные бронирования одной вещи
+     * выполняют проверку пересечения по очереди.
+     */
     private Item checkItemExisting(BookingRequestDto bookingDto) {
-        return itemRepository.findById(bookingDto.getItemId())
+        return itemRepository.findByIdForUpdate(bookingDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Вещь с id=" + bookingDto.getItemId() + " не найдена"));
     }
 }
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking.timeline;
+
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Одобренные бронирования одной вещи, упорядоченные по (start, id): последнее и следующее бронирование
+ * находятся одним поиском в дереве за O(log n). Хранятся текущие и будущие бронирования и последнее
+ * завершившееся, более ранние отбрасываются.
+ * <p>
+ * Хронология нужна только для показа последнего/следующего бронирования. Проверки пересечений при создании
+ * и подтверждении бронирований выполняются запросом к БД: хронология живет в памяти одного экземпляра
+ * и не видит бронирований, записанных другими экземплярами.
+ */
+public class ItemTimeline {
+
+    private static final Comparator<TimelineSlot> BY_START = Comparator.comparing(TimelineSlot::start)
+            .thenComparingLong(TimelineSlot::bookingId);
+
+    private final NavigableSet<TimelineSlot> approved = new TreeSet<>(BY_START);
+    private final Map<Long, TimelineSlot> slotsByBookingId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Последнее начавшееся одобренное бронирование: текущее, если вещь сейчас в аренде.
+     */
+    public TimelineSlot lastStarted(LocalDateTime now) {
+        lock.readLock().lock();
+        try {
+            return approved.lower(TimelineSlot.probe(now, Long.MIN_VALUE));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Последнее завершившееся одобренное бронирование.
+     */
+    public TimelineSlot lastFinished(LocalDateTime now) {
+        lock.readLock().lock();
+        try {
+            TimelineSlot last = approved.lower(TimelineSlot.probe(now, Long.MIN_VALUE));
+            if (last != null && !last.end().isBefore(now)) {
+                last = approved.lower(last);
+            }
+            return last;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public TimelineSlot next(LocalDateTime now) {
+        lock.readLock().lock();
+        try {
+            return approved.higher(TimelineSlot.probe(now, Long.MAX_VALUE));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Последнее завершившееся (LAST) и ближайшее будущее (NEXT) одобренные бронирования
+     * в форме, которую принимает {@code ItemMapper.setLastAndNext}.
+     */
+    public List<ItemBookingView> lastAndNext(LocalDateTime now) {
+        List<ItemBookingView> views = new ArrayList<>(2);
+        TimelineSlot last = lastFinished(now);
+        if (last != null) {
+            views.add(new SlotView(last, "LAST"));
+        }
+        TimelineSlot next = next(now);
+        if (next != null) {
+            views.add(new SlotView(next, "NEXT"));
+        }
+        return views;
+    }
+
+    /**
+     * Добавляет бронирование или заменяет его прежнее состояние: хранятся только одобренные.
+     */
+    void put(TimelineSlot slot) {
+        lock.writeLock().lock();
+        try {
+            TimelineSlot previous = slotsByBookingId.remove(slot.bookingId());
+            if (previous != null) {
+                approved.remove(previous);
+            }
+            if (slot.status() == BookingStatus.APPROVED) {
+                slotsByBookingId.put(slot.bookingId(), slot);
+                approved.add(slot);
+            }
+            prune(LocalDateTime.now());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Завершившиеся бронирования отбрасываются, кроме последнего из них.
+     */
+    private void prune(LocalDateTime now) {
+        while (approved.size() > 1 && approved.higher(approved.first()).end().isBefore(now)) {
+            slotsByBookingId.remove(approved.pollFirst().bookingId());
+        }
+    }
+
+    private record SlotView(TimelineSlot slot, String kind) implements ItemBookingView {
+
+        @Override
+        public Long getItemId() {
+            return slot.itemId();
+        }
+
+        @Override
+        public Long getBookingId() {
+            return slot.bookingId();
+        }
+
+        @Override
+        public Long getBookerId() {
+            return slot.bookerId();
+        }
+
+        @Override
+        public String getKind() {
+            return kind;
+        }
+    }
+}
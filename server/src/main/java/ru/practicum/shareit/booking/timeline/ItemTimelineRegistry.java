@@ -0,0 +1,200 @@
+package ru.practicum.shareit.booking.timeline;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Хронологии бронирований вещей в памяти экземпляра сервера. Хронология загружается одним запросом
+ * для всех отсутствующих вещей и дальше поддерживается при подтверждении и отклонении бронирований,
+ * поэтому последнее/следующее бронирование вещи не обращается к БД. Проверки пересечений хронологию
+ * не используют: другой экземпляр сервера пишет мимо нее.
+ * <p>
+ * Изменения транзакции применяются к общей хронологии в beforeCommit, пока удерживается блокировка
+ * строки вещи, а после отката хронология сбрасывается. Загрузка, пересекшаяся с записью той же вещи,
+ * в кэш не попадает: иначе в нем мог бы остаться снимок без только что зафиксированного бронирования.
+ * Запись в БД в обход сервисов хронология не видит.
+ */
+@Slf4j
+@Component
+public class ItemTimelineRegistry {
+
+    private static final int STRIPES = 256;
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemTimeline> timelines;
+    private final Object[] stripeLocks = new Object[STRIPES];
+    private final int[] writesInFlight = new int[STRIPES];
+    private final long[] versions = new long[STRIPES];
+
+    public ItemTimelineRegistry(BookingRepository bookingRepository, MeterRegistry meterRegistry,
+                                @Value("${shareit.timeline.max-items:100000}") long maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .recordStats()
+                .build();
+        for (int i = 0; i < STRIPES; i++) {
+            stripeLocks[i] = new Object();
+        }
+        CaffeineCacheMetrics.monitor(meterRegistry, timelines, "item-timelines");
+    }
+
+    public ItemTimeline get(long itemId) {
+        return getAll(List.of(itemId)).get(itemId);
+    }
+
+    public Map<Long, ItemTimeline> getAll(Collection<Long> itemIds) {
+        Map<Long, ItemTimeline> result = new HashMap<>(timelines.getAllPresent(itemIds));
+        List<Long> missing = itemIds.stream()
+                .filter(itemId -> !result.containsKey(itemId))
+                .distinct()
+                .toList();
+        if (!missing.isEmpty()) {
+            result.putAll(load(missing, isCacheableContext()));
+        }
+        return result;
+    }
+
+    /**
+     * Учитывает новое состояние бронирования; в общей хронологии оно появится при фиксации транзакции.
+     */
+    public void record(Booking booking) {
+        record(TimelineSlot.of(booking));
+    }
+
+    public void record(TimelineSlot slot) {
+        PendingWrites pending = pendingWrites();
+        pending.begin(slot.itemId());
+        pending.slots.add(slot);
+    }
+
+    public void evict(long itemId) {
+        pendingWrites().begin(itemId);
+        timelines.invalidate(itemId);
+    }
+
+    public void evictAll() {
+        timelines.invalidateAll();
+    }
+
+    private Map<Long, ItemTimeline> load(List<Long> itemIds, boolean cacheable) {
+        Map<Long, Long> observedVersions = cacheable ? observeVersions(itemIds) : Map.of();
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemTimeline> loaded = new HashMap<>();
+        itemIds.forEach(itemId -> loaded.put(itemId, new ItemTimeline()));
+        bookingRepository.findTimelineSlots(itemIds, BookingStatus.APPROVED, now)
+                .forEach(slot -> loaded.get(slot.itemId()).put(slot));
+        log.debug("Загружены хронологии бронирований {} вещей", itemIds.size());
+
+        observedVersions.forEach((itemId, version) -> {
+            int stripe = stripe(itemId);
+            synchronized (stripeLocks[stripe]) {
+                if (writesInFlight[stripe] == 0 && versions[stripe] == version) {
+                    timelines.put(itemId, loaded.get(itemId));
+                }
+            }
+        });
+        return loaded;
+    }
+
+    private Map<Long, Long> observeVersions(List<Long> itemIds) {
+        Map<Long, Long> observed = new HashMap<>();
+        for (Long itemId : itemIds) {
+            int stripe = stripe(itemId);
+            synchronized (stripeLocks[stripe]) {
+                if (writesInFlight[stripe] == 0) {
+                    observed.put(itemId, versions[stripe]);
+                }
+            }
+        }
+        return observed;
+    }
+
+    /**
+     * Кэшировать можно только то, что прочитано вне пишущих транзакций: снимок с незафиксированными
+     * изменениями после отката остался бы в кэше.
+     */
+    private boolean isCacheableContext() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return true;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !TransactionSynchronizationManager.hasResource(this);
+    }
+
+    private PendingWrites pendingWrites() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Изменение хронологии бронирований вне транзакции");
+        }
+        PendingWrites pending = (PendingWrites) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingWrites();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private static int stripe(long itemId) {
+        return Long.hashCode(itemId) & (STRIPES - 1);
+    }
+
+    private class PendingWrites implements TransactionSynchronization {
+
+        private final Map<Long, Long> observedVersions = new LinkedHashMap<>();
+        private final List<TimelineSlot> slots = new ArrayList<>();
+
+        void begin(long itemId) {
+            if (!observedVersions.containsKey(itemId)) {
+                int stripe = stripe(itemId);
+                synchronized (stripeLocks[stripe]) {
+                    writesInFlight[stripe]++;
+                    observedVersions.put(itemId, versions[stripe]);
+                }
+            }
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            for (TimelineSlot slot : slots) {
+                ItemTimeline shared = ItemTimelineRegistry.this.timelines.getIfPresent(slot.itemId());
+                if (shared != null) {
+                    shared.put(slot);
+                }
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ItemTimelineRegistry.this);
+            for (Long itemId : observedVersions.keySet()) {
+                if (status != STATUS_COMMITTED) {
+                    ItemTimelineRegistry.this.timelines.invalidate(itemId);
+                }
+                int stripe = stripe(itemId);
+                synchronized (stripeLocks[stripe]) {
+                    writesInFlight[stripe]--;
+                    versions[stripe]++;
+                }
+            }
+        }
+    }
+}
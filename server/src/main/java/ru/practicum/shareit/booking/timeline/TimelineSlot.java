@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.timeline;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public record TimelineSlot(long itemId, long bookingId, long bookerId, LocalDateTime start, LocalDateTime end,
+                           BookingStatus status) {
+
+    public static TimelineSlot of(Booking booking) {
+        return new TimelineSlot(booking.getItem().getId(), booking.getId(), booking.getBooker().getId(),
+                booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+
+    public TimelineSlot withStatus(BookingStatus status) {
+        return new TimelineSlot(itemId, bookingId, bookerId, start, end, status);
+    }
+
+    /**
+     * Ключ поиска в дереве бронирований: сравнение идет по (start, bookingId).
+     */
+    static TimelineSlot probe(LocalDateTime start, long bookingId) {
+        return new TimelineSlot(0, bookingId, 0, start, start, null);
+    }
+}
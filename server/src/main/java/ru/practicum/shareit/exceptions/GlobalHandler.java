@@ -1,14 +1,29 @@
 package ru.practicum.shareit.exceptions;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
 import ru.practicum.shareit.user.exception.EmailValidationException;
 
+import java.util.List;
+import java.util.Locale;
+
+@Slf4j
 @RestControllerAdvice
 public class GlobalHandler {
 
+    /**
+     * Внешние ключи на users. Их нарушение значит, что пользователь удален на другом экземпляре,
+     * пока этот считал его существующим (см. UserExistenceRegistry).
+     */
+    private static final List<String> USER_FOREIGN_KEYS = List.of("fk_requester", "fk_owner", "fk_booker",
+            "fk_author");
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ErrorResponse handleNotItemOwnerException(NotItemOwnerException e) {
@@ -21,12 +36,28 @@ public class GlobalHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingOverlapException(BookingOverlapException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleNotFoundException(NotFoundException e) {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (USER_FOREIGN_KEYS.stream().anyMatch(message::contains)) {
+            log.warn("Запись ссылается на удаленного пользователя: {}", e.getMostSpecificCause().getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("Пользователь не найден"));
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(handleError(e));
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleError(RuntimeException e) {
@@ -3,12 +3,14 @@ package ru.practicum.shareit.item;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -20,9 +22,13 @@ public class ItemController {
     private final ItemService itemService;
 
     @GetMapping
-    public List<ItemWithBookingsDto> getUsersItems(@RequestHeader("X-Sharer-User-Id") long userId) {
-        log.info("/items/ GET выполнение запроса. userId={}", userId);
-        return itemService.getUsersItems(userId);
+    public List<ItemWithBookingsDto> getUsersItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @RequestParam(defaultValue = "0") int from,
+                                                   @RequestParam(defaultValue = "10") int size,
+                                                   @RequestParam(required = false) Long cursorId) {
+        log.info("/items/ GET выполнение запроса. userId={}; from = {}; size = {}; cursorId = {}", userId, from, size,
+                cursorId);
+        return itemService.getUsersItems(userId, from, size, cursorId);
     }
 
     @GetMapping("/{itemId}")
@@ -32,20 +38,37 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    List<ItemDto> getItemsByText(@RequestHeader("X-Sharer-User-Id") long userId, @RequestParam("text") String text) {
-        log.info("/items/search GET выполнение запроса. userId={}; text = '{}'", userId, text);
-        return itemService.getItemsByText(userId, text);
+    List<ItemDto> getItemsByText(@RequestHeader("X-Sharer-User-Id") long userId, @RequestParam("text") String text,
+                                 @RequestParam(defaultValue = "0") int from,
+                                 @RequestParam(defaultValue = "10") int size) {
+        log.info("/items/search GET выполнение запроса. userId={}; text = '{}'; from = {}; size = {}", userId, text,
+                from, size);
+        return itemService.getItemsByText(userId, text, from, size);
+    }
+
+    @GetMapping("/search/available")
+    List<ItemDto> getAvailableItemsByText(@RequestHeader("X-Sharer-User-Id") long userId,
+                                          @RequestParam("text") String text,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                          LocalDateTime start,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                          LocalDateTime end,
+                                          @RequestParam(defaultValue = "0") int from,
+                                          @RequestParam(defaultValue = "10") int size) {
+        log.info("/items/search/available GET выполнение запроса. userId={}; text = '{}'; start = {}; end = {}; " +
+                "from = {}; size = {}", userId, text, start, end, from, size);
+        return itemService.getAvailableItemsByText(userId, text, start, end, from, size);
     }
 
     @PostMapping
     ItemDto createItem(@RequestHeader("X-Sharer-User-Id") long userId, @RequestBody ItemDto itemDto) {
-        log.info("/items POST выполнение запроса. userId={}; itemDto = {}", userId, itemDto.toString());
+        log.info("/items POST выполнение запроса. userId={}; itemDto = {}", userId, itemDto);
         return itemService.addNewItem(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
     ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId, @RequestBody ItemDto itemDto) {
-        log.info("/items/{itemId} PATCH выполнение запроса. userId={}; itemId = {}; itemDto = {}", userId, itemId, itemDto.toString());
+        log.info("/items/{itemId} PATCH выполнение запроса. userId={}; itemId = {}; itemDto = {}", userId, itemId, itemDto);
         return itemService.updateItem(userId, itemId, itemDto);
     }
 
@@ -55,6 +78,20 @@ public class ItemController {
         itemService.deleteItem(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getComments(@RequestHeader("X-Sharer-User-Id") long userId,
+                                        @PathVariable long itemId,
+                                        @RequestParam(defaultValue = "0") int from,
+                                        @RequestParam(defaultValue = "10") int size,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                        LocalDateTime cursorCreated,
+                                        @RequestParam(required = false) Long cursorId) {
+        log.info("/items/{itemId}/comments GET выполнение запроса. userId={}; itemId = {}; from = {}; size = {}",
+                userId, itemId, from, size);
+        return itemService.getComments(userId, itemId, from, size, cursorCreated, cursorId);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(
             @RequestHeader("X-Sharer-User-Id") long userId,
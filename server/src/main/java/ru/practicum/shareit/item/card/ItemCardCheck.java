@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.card;
+
+import java.util.List;
+
+/**
+ * Итог сверки карточек с таблицами вещей и отзывов: missing — вещи без карточки, stale — карточки,
+ * расходящиеся с вещью или ее отзывами, sample — первые расходящиеся id вещей.
+ */
+public record ItemCardCheck(long checked, long missing, long stale, List<Long> sample) {
+
+    public boolean consistent() {
+        return missing == 0 && stale == 0;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.card;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.item.dto.CommentDto;
+
+import java.util.List;
+
+/**
+ * Последние отзывы карточки хранятся JSON-массивом CommentDto: в том виде, в каком их отдает API.
+ */
+@UtilityClass
+public class ItemCardCodec {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static final TypeReference<List<CommentDto>> COMMENTS = new TypeReference<>() {
+    };
+
+    public static String writeComments(List<CommentDto> comments) {
+        try {
+            return MAPPER.writeValueAsString(comments);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось записать отзывы карточки вещи", e);
+        }
+    }
+
+    public static List<CommentDto> readComments(String json) {
+        try {
+            return MAPPER.readValue(json, COMMENTS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать отзывы карточки вещи", e);
+        }
+    }
+}
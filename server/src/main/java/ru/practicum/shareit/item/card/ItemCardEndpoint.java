@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.card;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/itemcards} сверяет карточки вещей с данными,
+ * {@code POST /actuator/itemcards} перестраивает их порциями, каждую в своей транзакции.
+ */
+@Component
+@Endpoint(id = "itemcards")
+@RequiredArgsConstructor
+public class ItemCardEndpoint {
+
+    private final ItemCardRebuilder itemCardRebuilder;
+
+    @ReadOperation
+    public ItemCardCheck check() {
+        return itemCardRebuilder.check();
+    }
+
+    @WriteOperation
+    public Map<String, Long> rebuild() {
+        return Map.of("rebuilt", itemCardRebuilder.rebuild());
+    }
+}
@@ -0,0 +1,174 @@
+package ru.practicum.shareit.item.card;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Перестроение и сверка карточек вещей по таблицам items, comments и users порциями по id вещи.
+ * Работает только через JDBC, поэтому используется и генератором данных нагрузочного теста.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemCardRebuilder {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int SAMPLE_SIZE = 20;
+
+    private static final String ITEMS = "select id, owner_id, name, description, is_available, request_id " +
+            "from items where id > :afterId order by id limit :size";
+
+    private static final String ITEM_IDS = "select id from items where id > :afterId order by id limit :size";
+
+    private static final String ITEMS_BY_ID = "select id, owner_id, name, description, is_available, request_id " +
+            "from items where id in (:itemIds) order by id";
+
+    private static final String LATEST_COMMENTS = "select c.item_id, c.id, c.text, u.name as author_name, c.created " +
+            "from (select c.*, row_number() over (partition by c.item_id order by c.created desc, c.id desc) as rn " +
+            "from comments c where c.item_id in (:itemIds)) c " +
+            "join users u on u.id = c.author_id " +
+            "where c.rn <= :limit " +
+            "order by c.item_id, c.created desc, c.id desc";
+
+    private static final String COMMENT_COUNTS = "select item_id, count(*) as comments_count from comments " +
+            "where item_id in (:itemIds) group by item_id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ItemCardStore itemCardStore;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Пересобирает карточки всех вещей, каждую порцию в своей транзакции. Карточки порции блокируются
+     * до чтения вещей и отзывов и переписываются на месте, недостающие вставляются. Параллельное
+     * добавление отзыва ждет блокировку своей карточки и дописывает отзыв в уже перестроенную карточку,
+     * а если заблокировало ее раньше — попадает в перестроение как зафиксированный отзыв.
+     */
+    public long rebuild() {
+        long rebuilt = 0;
+        long afterId = 0;
+        while (true) {
+            long batchAfterId = afterId;
+            List<Long> itemIds = transactionTemplate.execute(status -> rebuildBatch(batchAfterId));
+            if (itemIds == null || itemIds.isEmpty()) {
+                break;
+            }
+            rebuilt += itemIds.size();
+            afterId = itemIds.getLast();
+        }
+        log.info("Перестроено {} карточек вещей", rebuilt);
+        return rebuilt;
+    }
+
+    private List<Long> rebuildBatch(long afterId) {
+        List<Long> itemIds = jdbcTemplate.queryForList(ITEM_IDS, new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("size", BATCH_SIZE), Long.class);
+        if (itemIds.isEmpty()) {
+            return itemIds;
+        }
+        Set<Long> existing = itemCardStore.lockAll(itemIds);
+        Map<Boolean, List<ItemWithBookingsDto>> cards = computeCards(ITEMS_BY_ID,
+                new MapSqlParameterSource("itemIds", itemIds)).stream()
+                .collect(Collectors.partitioningBy(card -> existing.contains(card.getId())));
+        itemCardStore.updateAll(cards.get(true));
+        itemCardStore.insertAll(cards.get(false));
+        return itemIds;
+    }
+
+    public ItemCardCheck check() {
+        long checked = 0;
+        long missing = 0;
+        long stale = 0;
+        List<Long> sample = new ArrayList<>();
+        long afterId = 0;
+        List<ItemWithBookingsDto> expected;
+        while (!(expected = computeCards(ITEMS, new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("size", BATCH_SIZE))).isEmpty()) {
+            List<Long> itemIds = expected.stream().map(ItemWithBookingsDto::getId).toList();
+            Map<Long, ItemWithBookingsDto> stored = itemCardStore.findAll(itemIds).stream()
+                    .collect(Collectors.toMap(ItemWithBookingsDto::getId, Function.identity()));
+            for (ItemWithBookingsDto card : expected) {
+                ItemWithBookingsDto actual = stored.get(card.getId());
+                if (actual == null) {
+                    missing++;
+                } else if (!sameCard(card, actual)) {
+                    stale++;
+                } else {
+                    continue;
+                }
+                if (sample.size() < SAMPLE_SIZE) {
+                    sample.add(card.getId());
+                }
+            }
+            checked += expected.size();
+            afterId = itemIds.getLast();
+        }
+        ItemCardCheck result = new ItemCardCheck(checked, missing, stale, sample);
+        if (result.consistent()) {
+            log.info("Карточки {} вещей совпадают с данными", checked);
+        } else {
+            log.warn("Карточки вещей расходятся с данными: нет карточки — {}, устарели — {}, например {}", missing,
+                    stale, sample);
+        }
+        return result;
+    }
+
+    private List<ItemWithBookingsDto> computeCards(String itemsQuery, MapSqlParameterSource itemsParams) {
+        List<ItemWithBookingsDto> cards = jdbcTemplate.query(itemsQuery, itemsParams, (row, rowNum) -> {
+            ItemWithBookingsDto card = new ItemWithBookingsDto();
+            card.setId(row.getLong("id"));
+            card.setOwnerId(row.getLong("owner_id"));
+            card.setName(row.getString("name"));
+            card.setDescription(row.getString("description"));
+            card.setAvailable(row.getBoolean("is_available"));
+            card.setRequestId(row.getObject("request_id", Long.class));
+            card.setCommentsCount(0L);
+            card.setComments(new ArrayList<>());
+            return card;
+        });
+        if (cards.isEmpty()) {
+            return cards;
+        }
+        Map<Long, ItemWithBookingsDto> byId = new HashMap<>();
+        cards.forEach(card -> byId.put(card.getId(), card));
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("itemIds", byId.keySet())
+                .addValue("limit", ItemCardStore.LATEST_COMMENTS);
+        jdbcTemplate.query(LATEST_COMMENTS, params, row -> {
+            byId.get(row.getLong("item_id")).getComments().add(new CommentDto(row.getLong("id"),
+                    row.getString("text"), row.getString("author_name"),
+                    row.getTimestamp("created").toLocalDateTime()));
+        });
+        jdbcTemplate.query(COMMENT_COUNTS, params, row -> {
+            byId.get(row.getLong("item_id")).setCommentsCount(row.getLong("comments_count"));
+        });
+        return cards;
+    }
+
+    private static boolean sameCard(ItemWithBookingsDto expected, ItemWithBookingsDto actual) {
+        return Objects.equals(expected.getOwnerId(), actual.getOwnerId())
+                && Objects.equals(expected.getName(), actual.getName())
+                && Objects.equals(expected.getDescription(), actual.getDescription())
+                && Objects.equals(expected.getAvailable(), actual.getAvailable())
+                && Objects.equals(expected.getRequestId(), actual.getRequestId())
+                && Objects.equals(expected.getCommentsCount(), actual.getCommentsCount())
+                && ItemCardCodec.writeComments(expected.getComments())
+                .equals(ItemCardCodec.writeComments(actual.getComments()));
+    }
+}
@@ -0,0 +1,227 @@
+package ru.practicum.shareit.item.card;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Денормализованные карточки вещей (таблица item_cards): вещь, число отзывов и последние
+ * {@value #LATEST_COMMENTS} отзывов. Карточка меняется в той же транзакции, что и вещь или отзыв,
+ * поэтому чтение вещи — поиск одной строки, а список вещей владельца — один диапазон индекса.
+ * Последнее и следующее бронирование зависят от текущего времени и в карточке не хранятся.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ItemCardStore {
+
+    public static final int LATEST_COMMENTS = 10;
+
+    private static final String INSERT = "insert into item_cards (item_id, owner_id, name, description, " +
+            "is_available, request_id, comments_count, latest_comments) " +
+            "values (:itemId, :ownerId, :name, :description, :available, :requestId, :commentsCount, :latestComments)";
+
+    private static final String UPDATE = "update item_cards set owner_id = :ownerId, name = :name, " +
+            "description = :description, is_available = :available, request_id = :requestId, " +
+            "comments_count = :commentsCount, latest_comments = :latestComments where item_id = :itemId";
+
+    private static final String UPDATE_ITEM = "update item_cards set name = :name, description = :description, " +
+            "is_available = :available where item_id = :itemId";
+
+    private static final String LOCK_COMMENTS = "select item_id, comments_count, latest_comments from item_cards " +
+            "where item_id = :itemId for update";
+
+    private static final String UPDATE_COMMENTS = "update item_cards set comments_count = :commentsCount, " +
+            "latest_comments = :latestComments where item_id = :itemId";
+
+    private static final String AUTHOR_COMMENTS = "select id, item_id from comments where author_id = :authorId";
+
+    private static final String LOCK_CARDS = "select item_id, latest_comments from item_cards " +
+            "where item_id in (:itemIds) order by item_id for update";
+
+    private static final String UPDATE_LATEST_COMMENTS = "update item_cards set latest_comments = :latestComments " +
+            "where item_id = :itemId";
+
+    private static final String FIND = "select * from item_cards where item_id in (:itemIds) order by item_id";
+
+    private static final String FIND_BY_OWNER = "select * from item_cards " +
+            "where owner_id = :ownerId and item_id > :cursorId " +
+            "order by item_id " +
+            "limit :size offset :from";
+
+    private static final String LOCK_IDS = "select item_id from item_cards where item_id in (:itemIds) " +
+            "order by item_id for update";
+
+    private static final RowMapper<ItemWithBookingsDto> CARD = (row, rowNum) -> {
+        ItemWithBookingsDto card = new ItemWithBookingsDto();
+        card.setId(row.getLong("item_id"));
+        card.setOwnerId(row.getLong("owner_id"));
+        card.setName(row.getString("name"));
+        card.setDescription(row.getString("description"));
+        card.setAvailable(row.getBoolean("is_available"));
+        card.setRequestId(row.getObject("request_id", Long.class));
+        card.setCommentsCount(row.getLong("comments_count"));
+        card.setComments(ItemCardCodec.readComments(row.getString("latest_comments")));
+        return card;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insert(Item item) {
+        ItemWithBookingsDto card = new ItemWithBookingsDto();
+        card.setId(item.getId());
+        card.setOwnerId(item.getOwner().getId());
+        card.setName(item.getName());
+        card.setDescription(item.getDescription());
+        card.setAvailable(item.getAvailable());
+        card.setRequestId(item.getRequest() != null ? item.getRequest().getId() : null);
+        card.setCommentsCount(0L);
+        card.setComments(List.of());
+        insertAll(List.of(card));
+    }
+
+    public void insertAll(List<ItemWithBookingsDto> cards) {
+        jdbcTemplate.batchUpdate(INSERT, rows(cards));
+    }
+
+    /**
+     * Переписывает карточки целиком на месте: строки не удаляются, поэтому параллельное добавление
+     * отзыва, ждущее блокировку карточки, находит ее после фиксации.
+     */
+    public void updateAll(List<ItemWithBookingsDto> cards) {
+        jdbcTemplate.batchUpdate(UPDATE, rows(cards));
+    }
+
+    /**
+     * Блокирует существующие карточки вещей в порядке id, как при добавлении отзыва, и возвращает их id.
+     */
+    public Set<Long> lockAll(Collection<Long> itemIds) {
+        return new HashSet<>(jdbcTemplate.queryForList(LOCK_IDS, new MapSqlParameterSource("itemIds", itemIds),
+                Long.class));
+    }
+
+    public void update(Item item) {
+        jdbcTemplate.update(UPDATE_ITEM, new MapSqlParameterSource()
+                .addValue("itemId", item.getId())
+                .addValue("name", item.getName())
+                .addValue("description", item.getDescription())
+                .addValue("available", item.getAvailable()));
+    }
+
+    /**
+     * Добавляет новый отзыв в начало списка последних. Строка карточки блокируется: параллельные
+     * отзывы к одной вещи не затирают друг друга.
+     */
+    public void addComment(long itemId, CommentDto comment) {
+        List<ItemWithBookingsDto> locked = jdbcTemplate.query(LOCK_COMMENTS,
+                new MapSqlParameterSource("itemId", itemId), (row, rowNum) -> {
+                    ItemWithBookingsDto card = new ItemWithBookingsDto();
+                    card.setCommentsCount(row.getLong("comments_count"));
+                    card.setComments(ItemCardCodec.readComments(row.getString("latest_comments")));
+                    return card;
+                });
+        if (locked.isEmpty()) {
+            log.warn("Нет карточки вещи с id = {}: отзыв с id = {} появится в ней после перестроения", itemId,
+                    comment.getId());
+            return;
+        }
+        ItemWithBookingsDto card = locked.getFirst();
+        List<CommentDto> comments = new ArrayList<>(LATEST_COMMENTS);
+        comments.add(comment);
+        comments.addAll(card.getComments().subList(0, Math.min(card.getComments().size(), LATEST_COMMENTS - 1)));
+        jdbcTemplate.update(UPDATE_COMMENTS, new MapSqlParameterSource()
+                .addValue("itemId", itemId)
+                .addValue("commentsCount", card.getCommentsCount() + 1)
+                .addValue("latestComments", ItemCardCodec.writeComments(comments)));
+    }
+
+    /**
+     * Подставляет новое имя автора в последние отзывы карточек: имя хранится в JSON карточки
+     * и само не обновляется. Карточки блокируются в порядке id, как при добавлении отзыва.
+     */
+    public void renameAuthor(long authorId, String authorName) {
+        Map<Long, Set<Long>> commentIdsByItem = new HashMap<>();
+        jdbcTemplate.query(AUTHOR_COMMENTS, new MapSqlParameterSource("authorId", authorId), row -> {
+            commentIdsByItem.computeIfAbsent(row.getLong("item_id"), itemId -> new HashSet<>())
+                    .add(row.getLong("id"));
+        });
+        if (commentIdsByItem.isEmpty()) {
+            return;
+        }
+        List<SqlParameterSource> updates = new ArrayList<>();
+        jdbcTemplate.query(LOCK_CARDS, new MapSqlParameterSource("itemIds", commentIdsByItem.keySet()), row -> {
+            long itemId = row.getLong("item_id");
+            Set<Long> commentIds = commentIdsByItem.get(itemId);
+            List<CommentDto> comments = ItemCardCodec.readComments(row.getString("latest_comments"));
+            boolean renamed = false;
+            for (CommentDto comment : comments) {
+                if (commentIds.contains(comment.getId()) && !authorName.equals(comment.getAuthorName())) {
+                    comment.setAuthorName(authorName);
+                    renamed = true;
+                }
+            }
+            if (renamed) {
+                updates.add(new MapSqlParameterSource()
+                        .addValue("itemId", itemId)
+                        .addValue("latestComments", ItemCardCodec.writeComments(comments)));
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_LATEST_COMMENTS, updates.toArray(SqlParameterSource[]::new));
+        }
+        log.debug("Имя автора с id = {} обновлено в {} карточках вещей", authorId, updates.size());
+    }
+
+    public Optional<ItemWithBookingsDto> find(long itemId) {
+        return findAll(List.of(itemId)).stream().findFirst();
+    }
+
+    public List<ItemWithBookingsDto> findAll(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(FIND, new MapSqlParameterSource("itemIds", itemIds), CARD);
+    }
+
+    /**
+     * Карточки вещей владельца по возрастанию id. Курсор — id последней полученной вещи —
+     * имеет приоритет над смещением from.
+     */
+    public List<ItemWithBookingsDto> findByOwner(long ownerId, int from, int size, Long cursorId) {
+        return jdbcTemplate.query(FIND_BY_OWNER, new MapSqlParameterSource()
+                .addValue("ownerId", ownerId)
+                .addValue("cursorId", cursorId != null ? cursorId : 0L)
+                .addValue("from", cursorId != null ? 0 : from)
+                .addValue("size", size), CARD);
+    }
+
+    private static SqlParameterSource[] rows(List<ItemWithBookingsDto> cards) {
+        return cards.stream()
+                .map(card -> new MapSqlParameterSource()
+                        .addValue("itemId", card.getId())
+                        .addValue("ownerId", card.getOwnerId())
+                        .addValue("name", card.getName())
+                        .addValue("description", card.getDescription())
+                        .addValue("available", card.getAvailable())
+                        .addValue("requestId", card.getRequestId())
+                        .addValue("commentsCount", card.getCommentsCount())
+                        .addValue("latestComments", ItemCardCodec.writeComments(card.getComments())))
+                .toArray(SqlParameterSource[]::new);
+    }
+}
@@ -21,6 +21,7 @@ public class ItemWithBookingsDto {
     private Long ownerId;
     private Long requestId;
     private List<CommentDto> comments;
+    private Long commentsCount;
 
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
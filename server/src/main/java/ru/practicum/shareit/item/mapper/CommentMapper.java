@@ -7,6 +7,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @UtilityClass
 public class CommentMapper {
@@ -25,7 +26,8 @@ public class CommentMapper {
         comment.setText(commentDto.getText());
         comment.setItem(item);
         comment.setAuthor(author);
-        comment.setCreated(LocalDateTime.now());
+        // Точность TIMESTAMP в БД — микросекунды: отзыв в ответе и в карточке вещи совпадает с сохраненным.
+        comment.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
         return comment;
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.mapper;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
@@ -9,6 +10,10 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @UtilityClass
 public class ItemMapper {
 
@@ -41,6 +46,24 @@ public class ItemMapper {
         return dto;
     }
 
+    /**
+     * Проставляет последнее (LAST) и следующее (NEXT) бронирование вещам, например карточкам вещей.
+     */
+    public static void setLastAndNext(List<ItemWithBookingsDto> items, List<ItemBookingView> lastAndNext) {
+        Map<Long, List<ItemBookingView>> lastAndNextByItemId = lastAndNext.stream()
+                .collect(Collectors.groupingBy(ItemBookingView::getItemId));
+        for (ItemWithBookingsDto dto : items) {
+            for (ItemBookingView booking : lastAndNextByItemId.getOrDefault(dto.getId(), List.of())) {
+                BookingShortDto shortDto = new BookingShortDto(booking.getBookingId(), booking.getBookerId());
+                if (booking.isLast()) {
+                    dto.setLastBooking(shortDto);
+                } else {
+                    dto.setNextBooking(shortDto);
+                }
+            }
+        }
+    }
+
     public static Item mapToNewItem(ItemDto dto, User owner, ItemRequest request) {
         Item item = new Item();
         item.setName(dto.getName());
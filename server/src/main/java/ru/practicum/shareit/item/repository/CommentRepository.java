@@ -1,15 +1,14 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
-import java.util.List;
-
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByItemId(Long itemId);
-
-    @Query("select c from Comment c where c.item.id in :itemIds")
-    List<Comment> findByItemIds(List<Long> itemIds);
+    @EntityGraph(attributePaths = "author")
+    Window<Comment> findByItemIdOrderByCreatedDescIdDesc(long itemId, ScrollPosition position, Limit limit);
 }
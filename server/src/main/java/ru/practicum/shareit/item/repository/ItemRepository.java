@@ -1,18 +1,27 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> findByOwnerId(long userId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :itemId")
+    Optional<Item> findByIdForUpdate(long itemId);
 
-    @Query("select i from Item i where i.available = true and (lower(i.name) like lower(concat('%', ?1, '%')) or lower(i.description) " +
-            "like lower(concat('%', ?1, '%')))")
-    List<Item> findByText(String text);
+    /**
+     * Блокирует строки вещей в порядке id: пакеты с пересекающимися вещами не взаимоблокируются.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in :itemIds order by i.id")
+    List<Item> findAllByIdForUpdate(Collection<Long> itemIds);
 
     List<Item> findByRequestIdOrderByRequestIdDesc(long requestId);
 
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+
+    private static final String DELETE_TERMS = "delete from item_search_terms where item_id = :itemId";
+
+    private static final String INSERT_TERM = "insert into item_search_terms (term, item_id, weight, available) " +
+            "values (:term, :itemId, :weight, :available)";
+
+    private static final String IS_INDEXED = "select count(*) from (select 1 from item_search_terms " +
+            "where term = :term and available = true limit 1) t";
+
+    private static final String NOT_BOOKED = " and not exists (select 1 from bookings b " +
+            "where b.item_id = %s and b.end_date > :start and b.start_date < :end and b.status = 'APPROVED')";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void index(Item item) {
+        jdbcTemplate.update(DELETE_TERMS, new MapSqlParameterSource("itemId", item.getId()));
+
+        SqlParameterSource[] rows = ItemSearchTokenizer.weightedTerms(item.getName(), item.getDescription())
+                .entrySet().stream()
+                .map(term -> new MapSqlParameterSource()
+                        .addValue("term", term.getKey())
+                        .addValue("itemId", item.getId())
+                        .addValue("weight", term.getValue())
+                        .addValue("available", item.getAvailable()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_TERM, rows);
+    }
+
+    /**
+     * Возвращает id доступных вещей, содержащих все слова запроса, по убыванию релевантности.
+     * Слово запроса совпадает с началом слова вещи по индексу. Слова короче
+     * {@value ItemSearchTokenizer#MIN_PREFIX_LENGTH} символов и слова, с которых не начинается ни одно
+     * слово доступных вещей (фрагменты из середины слова, как «ккум»), ищутся как подстрока названия
+     * или описания.
+     */
+    public List<Long> search(String text, int from, int size) {
+        return find(text, null, null, from, size);
+    }
+
+    /**
+     * Как {@link #search}, но только вещи без одобренных бронирований, пересекающих [start, end).
+     */
+    public List<Long> searchAvailable(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        return find(text, start, end, from, size);
+    }
+
+    /**
+     * Запрос ведет самое длинное из найденных в индексе слов: обычно оно самое редкое, а остальные слова
+     * проверяются для его совпадений поиском по первичному ключу (term, item_id). Вес вещи — сумма весов
+     * слов запроса. Если в индексе нет ни одного слова запроса, вещи просматриваются в порядке id
+     * с фильтром по подстроке, и страница заканчивается на первых {@code size} совпадениях.
+     */
+    private List<Long> find(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        List<String> terms = ItemSearchTokenizer.tokenize(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        List<String> indexed = new ArrayList<>();
+        List<String> fragments = new ArrayList<>();
+        for (String term : terms) {
+            if (term.length() >= ItemSearchTokenizer.MIN_PREFIX_LENGTH && isIndexed(term)) {
+                indexed.add(term);
+            } else {
+                fragments.add(term);
+            }
+        }
+        indexed.sort(Comparator.comparingInt(String::length).reversed());
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", start)
+                .addValue("end", end)
+                .addValue("from", from)
+                .addValue("size", size);
+        StringBuilder sql = new StringBuilder();
+        String itemId;
+        String order;
+        if (indexed.isEmpty()) {
+            itemId = "i.id";
+            order = "i.id";
+            sql.append("select i.id from items i where i.is_available = true");
+        } else {
+            itemId = "t0.item_id";
+            StringBuilder weight = new StringBuilder("t0.weight");
+            sql.append("select t0.item_id from item_search_terms t0 where t0.term = :term0 and t0.available = true");
+            params.addValue("term0", indexed.getFirst());
+            for (int i = 1; i < indexed.size(); i++) {
+                String term = "t" + i;
+                String lookup = "select " + term + ".weight from item_search_terms " + term + " where " + term
+                        + ".term = :term" + i + " and " + term + ".item_id = t0.item_id";
+                sql.append(" and exists (").append(lookup).append(")");
+                weight.append(" + (").append(lookup).append(")");
+                params.addValue("term" + i, indexed.get(i));
+            }
+            order = weight + " desc, t0.item_id";
+        }
+        if (!fragments.isEmpty()) {
+            sql.append(indexed.isEmpty() ? "" : " and exists (select 1 from items i where i.id = t0.item_id");
+            for (int i = 0; i < fragments.size(); i++) {
+                sql.append(" and (lower(i.name) like :fragment").append(i)
+                        .append(" or lower(i.description) like :fragment").append(i).append(")");
+                params.addValue("fragment" + i, "%" + fragments.get(i) + "%");
+            }
+            sql.append(indexed.isEmpty() ? "" : ")");
+        }
+        if (start != null) {
+            sql.append(NOT_BOOKED.formatted(itemId));
+        }
+        sql.append(" order by ").append(order).append(" limit :size offset :from");
+        return jdbcTemplate.queryForList(sql.toString(), params, Long.class);
+    }
+
+    private boolean isIndexed(String term) {
+        Integer found = jdbcTemplate.queryForObject(IS_INDEXED, new MapSqlParameterSource("term", term),
+                Integer.class);
+        return found != null && found > 0;
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@UtilityClass
+public class ItemSearchTokenizer {
+
+    public static final int MAX_TERM_LENGTH = 64;
+    public static final int MIN_PREFIX_LENGTH = 3;
+
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(DELIMITER.split(text.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term)
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Слова текста и их начала длиной от {@value #MIN_PREFIX_LENGTH} символов: слово запроса находит
+     * все слова, которые с него начинаются. Более короткие слова запроса совпадают только с целым словом.
+     */
+    public static Set<String> indexTerms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : tokenize(text)) {
+            for (int length = Math.min(MIN_PREFIX_LENGTH, word.length()); length <= word.length(); length++) {
+                terms.add(word.substring(0, length));
+            }
+        }
+        return terms;
+    }
+
+    public static Map<String, Integer> weightedTerms(String name, String description) {
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        indexTerms(name).forEach(term -> terms.merge(term, NAME_WEIGHT, Integer::sum));
+        indexTerms(description).forEach(term -> terms.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        return terms;
+    }
+}
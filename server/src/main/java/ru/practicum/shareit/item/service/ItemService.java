@@ -4,6 +4,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -14,12 +15,18 @@ public interface ItemService {
 
     ItemWithBookingsDto getItemById(long userId, long itemId);
 
-    List<ItemWithBookingsDto> getUsersItems(long userId);
+    List<ItemWithBookingsDto> getUsersItems(long userId, int from, int size, Long cursorId);
 
-    List<ItemDto> getItemsByText(long userId, String text);
+    List<ItemDto> getItemsByText(long userId, String text, int from, int size);
+
+    List<ItemDto> getAvailableItemsByText(long userId, String text, LocalDateTime start, LocalDateTime end,
+                                          int from, int size);
 
     void deleteItem(long userId, long itemId);
 
     CommentDto addComment(long userId, long itemId, CommentDto commentDto);
 
+    List<CommentDto> getComments(long userId, long itemId, int from, int size, LocalDateTime cursorCreated,
+                                 Long cursorId);
+
 }
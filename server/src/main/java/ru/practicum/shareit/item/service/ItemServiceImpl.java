@@ -1,15 +1,22 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.ItemTimeline;
+import ru.practicum.shareit.booking.timeline.ItemTimelineRegistry;
+import ru.practicum.shareit.booking.timeline.TimelineSlot;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.NotItemOwnerException;
+import ru.practicum.shareit.item.card.ItemCardStore;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
@@ -20,34 +27,44 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.metrics.MetricsConfig;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxRepository;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceRegistry;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
+
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceRegistry userExistenceRegistry;
     private final ItemRequestRepository itemRequestRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemTimelineRegistry itemTimelineRegistry;
+    private final ItemCardStore itemCardStore;
+    private final OutboxRepository outboxRepository;
 
     @Override
     @Transactional
     public ItemDto addNewItem(long userId, ItemDto itemDto) {
         log.info("Обработка запроса на добавление нового предмета пользователем с id = {}", userId);
-        User owner = checkUserExisting(userId);
+        User owner = userExistenceRegistry.getReference(userId);
 
         ItemRequest request = null;
         if (itemDto.getRequestId() != null) {
@@ -57,7 +74,11 @@ public class ItemServiceImpl implements ItemService {
 
         Item item = ItemMapper.mapToNewItem(itemDto, owner, request);
         item = itemRepository.save(item);
-        return ItemMapper.mapToItemDto(item);
+        itemSearchIndex.index(item);
+        itemCardStore.insert(item);
+        ItemDto result = ItemMapper.mapToItemDto(item);
+        outboxRepository.append(OutboxEventType.ITEM_CREATED, item.getId(), result);
+        return result;
     }
 
     @Override
@@ -78,36 +99,32 @@ public class ItemServiceImpl implements ItemService {
         }
 
         item = itemRepository.save(item);
-        return ItemMapper.mapToItemDto(item);
+        itemSearchIndex.index(item);
+        itemCardStore.update(item);
+        ItemDto result = ItemMapper.mapToItemDto(item);
+        outboxRepository.append(OutboxEventType.ITEM_UPDATED, item.getId(), result);
+        return result;
     }
 
     @Override
     public ItemWithBookingsDto getItemById(long userId, long itemId) {
         log.info("Запрос на получение вещи с id = {} пользователем с id = {}", itemId, userId);
 
-        Item item = checkItemExisting(itemId);
-
-        ItemWithBookingsDto itemWithBookingsDto = ItemMapper.mapToItemWithBookingsDto(item, null, null);
-
-        List<CommentDto> comments = commentRepository.findByItemId(itemId).stream()
-                .map(CommentMapper::mapToCommentDto)
-                .toList();
-        itemWithBookingsDto.setComments(comments);
+        ItemWithBookingsDto itemWithBookingsDto = itemCardStore.find(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
 
-        if (item.getOwner().getId().equals(userId)) {
+        if (itemWithBookingsDto.getOwnerId().equals(userId)) {
             LocalDateTime now = LocalDateTime.now();
 
-            Booking last = bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByEndDesc(
-                    itemId, now, BookingStatus.APPROVED);
-
-            Booking next = bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
-                    itemId, now, BookingStatus.APPROVED);
+            ItemTimeline timeline = itemTimelineRegistry.get(itemId);
+            TimelineSlot last = timeline.lastStarted(now);
+            TimelineSlot next = timeline.next(now);
 
             if (last != null) {
-                itemWithBookingsDto.setLastBooking(new BookingShortDto(last.getId(), last.getBooker().getId()));
+                itemWithBookingsDto.setLastBooking(new BookingShortDto(last.bookingId(), last.bookerId()));
             }
             if (next != null) {
-                itemWithBookingsDto.setNextBooking(new BookingShortDto(next.getId(), next.getBooker().getId()));
+                itemWithBookingsDto.setNextBooking(new BookingShortDto(next.bookingId(), next.bookerId()));
             }
         }
 
@@ -115,56 +132,58 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemWithBookingsDto> getUsersItems(long userId) {
-        log.info("Запрос на получение всех вещей пользователя с id = {}", userId);
-
-        List<Item> items = itemRepository.findByOwnerId(userId);
-        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
-
-        List<Booking> userBookings = bookingRepository.findByItemIdsAndStatusIsApprovedOrderByStartTimeAsc(itemIds);
-        Map<Long, List<Booking>> userBookingsByItemsId = userBookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
-
-        List<Comment> itemComments = commentRepository.findByItemIds(itemIds);
-        Map<Long, List<Comment>> commentsByItemId = itemComments.stream()
-                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+    public List<ItemWithBookingsDto> getUsersItems(long userId, int from, int size, Long cursorId) {
+        log.info("Запрос на получение вещей пользователя с id = {}, from = {}, size = {}, cursorId = {}", userId,
+                from, size, cursorId);
 
+        List<ItemWithBookingsDto> items = itemCardStore.findByOwner(userId, from, size, cursorId);
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> itemIds = items.stream().map(ItemWithBookingsDto::getId).toList();
         LocalDateTime now = LocalDateTime.now();
+        List<ItemBookingView> lastAndNext = itemTimelineRegistry.getAll(itemIds).values().stream()
+                .flatMap(timeline -> timeline.lastAndNext(now).stream())
+                .toList();
 
-        return items.stream()
-                .map(item -> {
-
-                    List<Booking> bookings = userBookingsByItemsId.getOrDefault(item.getId(), List.of());
-
-                    List<CommentDto> comments = commentsByItemId.getOrDefault(item.getId(), List.of()).stream()
-                            .map(CommentMapper::mapToCommentDto).toList();
-
-                    Booking last = bookings.stream()
-                            .filter(booking -> booking.getEnd().isBefore(now))
-                            .max(Comparator.comparing(Booking::getEnd))
-                            .orElse(null);
-
-                    Booking next = bookings.stream()
-                            .filter(booking -> booking.getStart().isAfter(now))
-                            .min(Comparator.comparing(Booking::getStart))
-                            .orElse(null);
-
-                    ItemWithBookingsDto itemWithBookingsDto = ItemMapper.mapToItemWithBookingsDto(item, last, next);
-                    itemWithBookingsDto.setComments(comments);
-
-                    return itemWithBookingsDto;
+        ItemMapper.setLastAndNext(items, lastAndNext);
+        return items;
+    }
 
-                }).toList();
+    @Override
+    public List<CommentDto> getComments(long userId, long itemId, int from, int size, LocalDateTime cursorCreated,
+                                        Long cursorId) {
+        log.info("Запрос отзывов вещи с id = {}, from = {}, size = {}, cursor = ({}, {})", itemId, from, size,
+                cursorCreated, cursorId);
+        checkItemExisting(itemId);
+        return commentRepository.findByItemIdOrderByCreatedDescIdDesc(itemId,
+                        toScrollPosition(from, cursorCreated, cursorId), Limit.of(size)).stream()
+                .map(CommentMapper::mapToCommentDto)
+                .toList();
+    }
 
+    /**
+     * Курсор (created, id) последнего полученного отзыва имеет приоритет над смещением from.
+     */
+    private ScrollPosition toScrollPosition(int from, LocalDateTime cursorCreated, Long cursorId) {
+        if (cursorCreated != null && cursorId != null) {
+            return ScrollPosition.forward(Map.of("created", cursorCreated, "id", cursorId));
+        }
+        return from == 0 ? ScrollPosition.offset() : ScrollPosition.offset(from - 1);
     }
 
+    @Override
+    public List<ItemDto> getItemsByText(long userId, String text, int from, int size) {
+        log.info("Запрос на поиск доступных вещей по тексту = '{}', from = {}, size = {}", text, from, size);
+        return findItemsInOrder(itemSearchIndex.search(text, from, size));
+    }
 
     @Override
-    public List<ItemDto> getItemsByText(long userId, String text) {
-        log.info("Запрос на поиск доступных вещей по тексту = '{}'", text);
-        return itemRepository.findByText(text).stream()
-                .map(ItemMapper::mapToItemDto)
-                .toList();
+    public List<ItemDto> getAvailableItemsByText(long userId, String text, LocalDateTime start, LocalDateTime end,
+                                                 int from, int size) {
+        log.info("Запрос на поиск вещей по тексту = '{}', свободных с {} по {}, from = {}, size = {}",
+                text, start, end, from, size);
+        return findItemsInOrder(itemSearchIndex.searchAvailable(text, start, end, from, size));
     }
 
     @Override
@@ -174,13 +193,15 @@ public class ItemServiceImpl implements ItemService {
         Item item = checkItemExisting(itemId);
         checkItemOwner(userId, item);
         itemRepository.delete(item);
+        itemTimelineRegistry.evict(itemId);
+        outboxRepository.append(OutboxEventType.ITEM_DELETED, itemId, ItemMapper.mapToItemDto(item));
         log.info("Вещь с id = {} успешно удалена.", itemId);
     }
 
     @Override
     @Transactional
     public CommentDto addComment(long userId, long itemId, CommentDto commentDto) {
-        User user = checkUserExisting(userId);
+        User user = userExistenceRegistry.getReference(userId);
         Item item = checkItemExisting(itemId);
 
         boolean hasPastBooking = bookingRepository.existsByItem_idAndBooker_idAndEndBeforeAndStatus(
@@ -191,7 +212,19 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Comment comment = CommentMapper.mapToComment(commentDto, item, user);
-        return CommentMapper.mapToCommentDto(commentRepository.save(comment));
+        CommentDto savedComment = CommentMapper.mapToCommentDto(commentRepository.save(comment));
+        itemCardStore.addComment(itemId, savedComment);
+        outboxRepository.append(OutboxEventType.COMMENT_ADDED, itemId, savedComment);
+        return savedComment;
+    }
+
+    private List<ItemDto> findItemsInOrder(List<Long> itemIds) {
+        Map<Long, Item> itemsById = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds.stream()
+                .map(itemsById::get)
+                .map(ItemMapper::mapToItemDto)
+                .toList();
     }
 
     private void checkItemOwner(long userId, Item itemToCheck) {
@@ -205,9 +238,4 @@ public class ItemServiceImpl implements ItemService {
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
     }
-
-    private User checkUserExisting(long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-    }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Таймеры методов сервисов: классы, отмеченные {@code @Timed("shareit.service")}, публикуют
+ * время каждого метода с тегами class, method и exception. Запросы репозиториев Spring Boot
+ * измеряет сам (spring.data.repository.invocations); гистограммы включены в application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "shareit.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
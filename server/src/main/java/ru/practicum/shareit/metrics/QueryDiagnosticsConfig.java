@@ -0,0 +1,44 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Диагностика SQL-запросов по HTTP-запросам; включается {@code shareit.diagnostics.enabled=true} (в тестах
+ * и при разборе проблем), в продакшене по умолчанию выключена: обертка проксирует каждое соединение и запрос.
+ * Запросы считаются оберткой {@link StatementCountingDataSource} вокруг пула соединений.
+ */
+@Configuration
+@EnableConfigurationProperties(QueryDiagnosticsProperties.class)
+@ConditionalOnProperty(prefix = "shareit.diagnostics", name = "enabled", matchIfMissing = false)
+public class QueryDiagnosticsConfig {
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryDiagnosticsFilter> queryDiagnosticsFilter(
+            QueryDiagnosticsProperties properties, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<QueryDiagnosticsFilter> registration =
+                new FilterRegistrationBean<>(new QueryDiagnosticsFilter(properties, meterRegistry));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Считает SQL-запросы каждого HTTP-запроса и публикует их число в метрику {@code shareit.jpa.statements}.
+ * Запрос, превысивший бюджет запросов или порог длительности, попадает в лог вместе с формами SQL:
+ * одна и та же форма, повторенная много раз, — признак N+1.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QueryDiagnosticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_SUMMARY = "shareit.jpa.statements";
+    public static final String VIOLATIONS_COUNTER = "shareit.jpa.budget.violations";
+
+    private static final Pattern LITERAL = Pattern.compile("'[^']*'|\\b\\d+\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final QueryDiagnosticsProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+        StatementCountingDataSource.start();
+        List<String> statements;
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            statements = StatementCountingDataSource.stop();
+        }
+        Duration duration = Duration.ofNanos(System.nanoTime() - startedAt);
+        String uri = uriTemplate(request);
+
+        DistributionSummary.builder(STATEMENTS_SUMMARY)
+                .description("Число SQL-запросов на HTTP-запрос")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.size());
+
+        boolean overBudget = statements.size() > properties.getStatementBudget();
+        boolean slow = duration.compareTo(properties.getSlowRequest()) > 0;
+        if (!overBudget && !slow) {
+            return;
+        }
+        violation(request.getMethod(), uri, overBudget ? "statements" : "duration").increment();
+        log.warn("{} {}: {} SQL-запросов за {} мс (бюджет {}, порог {} мс). Формы запросов:\n{}",
+                request.getMethod(), uri, statements.size(), duration.toMillis(),
+                properties.getStatementBudget(), properties.getSlowRequest().toMillis(), describe(statements));
+        if (overBudget && properties.isFailOnViolation()) {
+            throw new QueryBudgetExceededException(request.getMethod() + " " + uri + " выполнил "
+                    + statements.size() + " SQL-запросов при бюджете " + properties.getStatementBudget());
+        }
+    }
+
+    /**
+     * Формы SQL с числом повторов, от самой частой: литералы и списки параметров IN сворачиваются.
+     */
+    static String describe(List<String> statements) {
+        Map<String, Long> shapes = statements.stream()
+                .map(QueryDiagnosticsFilter::shape)
+                .collect(Collectors.groupingBy(Function.identity(), LinkedHashMap::new, Collectors.counting()));
+        return shapes.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .map(shape -> "  " + shape.getValue() + " x " + shape.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+
+    static String shape(String sql) {
+        String shape = LITERAL.matcher(sql).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    private Counter violation(String method, String uri, String reason) {
+        return Counter.builder(VIOLATIONS_COUNTER)
+                .description("HTTP-запросы, превысившие бюджет SQL-запросов или порог длительности")
+                .tag("method", method)
+                .tag("uri", uri)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String uriTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
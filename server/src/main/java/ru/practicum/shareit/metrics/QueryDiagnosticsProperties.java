@@ -0,0 +1,30 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.diagnostics")
+public class QueryDiagnosticsProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Допустимое число SQL-запросов на один HTTP-запрос.
+     */
+    private int statementBudget = 10;
+
+    /**
+     * Запросы дольше этого порога попадают в лог вместе с выполненными SQL.
+     */
+    private Duration slowRequest = Duration.ofMillis(500);
+
+    /**
+     * Превышение бюджета запросов завершает HTTP-запрос ошибкой; включается в тестах.
+     */
+    private boolean failOnViolation = false;
+}
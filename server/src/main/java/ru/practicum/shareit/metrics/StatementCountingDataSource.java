@@ -0,0 +1,147 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запоминает SQL, выполненные в текущем потоке, пока открыт журнал HTTP-запроса. Счет идет на уровне JDBC,
+ * поэтому в журнал попадают и запросы Hibernate, и запросы JdbcTemplate. Пакет JDBC считается одним
+ * запросом: он уходит в БД одним обращением.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    public static void start() {
+        STATEMENTS.set(new ArrayList<>());
+    }
+
+    /**
+     * Закрывает журнал текущего потока и возвращает выполненные SQL.
+     */
+    public static List<String> stop() {
+        List<String> statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements != null ? statements : List.of();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private static void record(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler);
+    }
+
+    private abstract static class DelegatingHandler implements InvocationHandler {
+
+        private final Object target;
+
+        DelegatingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> intercept(proxy, method, args);
+            };
+        }
+
+        abstract Object intercept(Object proxy, Method method, Object[] args) throws Throwable;
+
+        Object delegate(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    private static class ConnectionHandler extends DelegatingHandler {
+
+        ConnectionHandler(Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        Object intercept(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            if (!(result instanceof Statement)) {
+                return result;
+            }
+            String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+            return proxy(method.getReturnType(), new StatementHandler(result, sql));
+        }
+    }
+
+    private static class StatementHandler extends DelegatingHandler {
+
+        private final String preparedSql;
+        private final List<String> batch = new ArrayList<>();
+
+        StatementHandler(Object statement, String preparedSql) {
+            super(statement);
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        Object intercept(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("addBatch") && args != null && args.length == 1) {
+                batch.add((String) args[0]);
+            } else if (name.equals("clearBatch")) {
+                batch.clear();
+            } else if (name.startsWith("execute")) {
+                record(executedSql(name, args));
+            }
+            return delegate(method, args);
+        }
+
+        private String executedSql(String name, Object[] args) {
+            if (args != null && args.length > 0 && args[0] instanceof String sql) {
+                return sql;
+            }
+            if (preparedSql != null) {
+                return preparedSql;
+            }
+            String sql = String.join("; ", batch);
+            if (name.endsWith("Batch")) {
+                batch.clear();
+            }
+            return sql;
+        }
+    }
+}
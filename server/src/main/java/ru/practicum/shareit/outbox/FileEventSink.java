@@ -0,0 +1,56 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Дописывает события в файл по одному JSON на строку; потребитель читает файл с запомненной позиции.
+ * Пакет записывается и сбрасывается на диск до удаления событий из таблицы, поэтому после сбоя
+ * последние события могут повториться: потребитель отбрасывает id, которые уже обработал.
+ */
+@RequiredArgsConstructor
+public class FileEventSink implements OutboxEventSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE,
+                    StandardOpenOption.SYNC)) {
+                for (OutboxEvent event : events) {
+                    writer.write(objectMapper.writeValueAsString(toJson(event)));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать события в " + path, e);
+        }
+    }
+
+    private ObjectNode toJson(OutboxEvent event) throws IOException {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", event.id());
+        node.put("type", event.type().name());
+        node.put("aggregateType", event.type().getAggregateType());
+        node.put("aggregateId", event.aggregateId());
+        node.put("created", event.created().toString());
+        node.set("payload", objectMapper.readTree(event.payload()));
+        return node;
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Получатель событий выбирается свойством {@code shareit.outbox.sink}; собственный бин
+ * OutboxEventSink (например, клиент брокера) заменяет встроенные. Слушатели внутри процесса
+ * получают события от OutboxRelay при любом получателе.
+ */
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxEventSink.class)
+    @ConditionalOnProperty(prefix = "shareit.outbox", name = "sink", havingValue = "file")
+    public OutboxEventSink fileEventSink(OutboxProperties properties, ObjectMapper objectMapper) {
+        return new FileEventSink(properties.getFile(), objectMapper);
+    }
+
+    /**
+     * Получатель {@code application}: события никуда не передаются, их получают только слушатели
+     * внутри процесса.
+     */
+    @Bean
+    @ConditionalOnMissingBean(OutboxEventSink.class)
+    public OutboxEventSink applicationEventSink() {
+        return events -> {
+        };
+    }
+
+    @Configuration
+    @EnableScheduling
+    @ConditionalOnProperty(prefix = "shareit.outbox", name = "relay-enabled", matchIfMissing = true)
+    static class RelaySchedulingConfig implements SchedulingConfigurer {
+
+        private final OutboxRelay outboxRelay;
+        private final OutboxProperties properties;
+
+        RelaySchedulingConfig(OutboxRelay outboxRelay, OutboxProperties properties) {
+            this.outboxRelay = outboxRelay;
+            this.properties = properties;
+        }
+
+        @Override
+        public void configureTasks(ScheduledTaskRegistrar registrar) {
+            registrar.addFixedDelayTask(outboxRelay::relayScheduled, properties.getPollInterval());
+        }
+    }
+}
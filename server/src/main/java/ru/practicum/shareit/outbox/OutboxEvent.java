@@ -0,0 +1,9 @@
+package ru.practicum.shareit.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие из таблицы outbox_events; payload — JSON того же DTO, что возвращает REST API.
+ */
+public record OutboxEvent(long id, OutboxEventType type, long aggregateId, String payload, LocalDateTime created) {
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.outbox;
+
+import java.util.List;
+
+/**
+ * Получатель событий, которые публикует OutboxRelay. Пакет передается в порядке id; если метод
+ * выбросил исключение, пакет остается в таблице и будет передан повторно.
+ */
+public interface OutboxEventSink {
+
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum OutboxEventType {
+    BOOKING_CREATED("BOOKING"),
+    BOOKING_APPROVED("BOOKING"),
+    BOOKING_REJECTED("BOOKING"),
+    ITEM_CREATED("ITEM"),
+    ITEM_UPDATED("ITEM"),
+    ITEM_DELETED("ITEM"),
+    COMMENT_ADDED("ITEM");
+
+    private final String aggregateType;
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.outbox")
+public class OutboxProperties {
+
+    /**
+     * Периодическая публикация событий; в тестах отключается и OutboxRelay вызывается напрямую.
+     */
+    private boolean relayEnabled = true;
+
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Сколько событий публикуется и удаляется одной транзакцией.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Получатель событий: application — слушатели внутри процесса, file — файл JSON Lines.
+     */
+    private String sink = "application";
+
+    private Path file = Path.of("shareit-events.jsonl");
+}
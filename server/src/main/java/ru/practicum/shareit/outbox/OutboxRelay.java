@@ -0,0 +1,90 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Переносит события из outbox_events в OutboxEventSink. Каждый пакет публикуется и удаляется в одной
+ * транзакции: если получатель упал, события остаются в таблице и публикуются повторно, то есть
+ * доставка — «хотя бы один раз».
+ * <p>
+ * Принятый получателем пакет публикуется и внутри процесса, для методов {@code @EventListener(OutboxEvent.class)},
+ * при любом получателе, в той же транзакции: так журнал ленты бронирований пополняется ровно теми
+ * событиями, которые приняты получателем и удалены из outbox_events.
+ * <p>
+ * Порядок гарантирован только в пределах одного экземпляра и только для бронирований одной вещи:
+ * они пишутся под блокировкой строки вещи, поэтому их порядок по id совпадает с порядком фиксации,
+ * а пакеты одного экземпляра публикуются последовательно по id. События вещей и отзывов пишутся без
+ * блокировки, и событие с меньшим id может зафиксироваться позже уже опубликованного. Несколько
+ * экземпляров с {@code SKIP LOCKED} забирают разные пакеты и публикуют их параллельно, поэтому
+ * события, в том числе одного агрегата, приходят получателю в произвольном порядке.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxEventSink sink;
+    private final ApplicationEventPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter published;
+
+    public OutboxRelay(OutboxRepository outboxRepository, OutboxEventSink sink,
+                       ApplicationEventPublisher publisher, TransactionTemplate transactionTemplate,
+                       OutboxProperties properties, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.publisher = publisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = properties.getBatchSize();
+        this.published = meterRegistry.counter("shareit.outbox.published");
+    }
+
+    /**
+     * Публикует накопившиеся события пакетами, пока таблица не опустеет.
+     *
+     * @return число опубликованных событий
+     */
+    public int relay() {
+        int total = 0;
+        int relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+            total += relayed;
+        } while (relayed == batchSize);
+        if (total > 0) {
+            log.debug("Опубликовано {} событий", total);
+        }
+        return total;
+    }
+
+    /**
+     * Вызов по расписанию: ошибка получателя записывается в лог, события ждут следующего запуска.
+     */
+    void relayScheduled() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            log.error("Не удалось опубликовать события, повтор при следующем запуске", e);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxRepository.lockBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        sink.publish(events);
+        events.forEach(publisher::publishEvent);
+        outboxRepository.deleteAll(events.stream().map(OutboxEvent::id).toList());
+        published.increment(events.size());
+        return events.size();
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Таблица outbox_events. Сервисы добавляют события в своей транзакции: событие появляется тогда
+ * и только тогда, когда зафиксировано изменение. OutboxRelay забирает их пакетами в порядке id.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private static final String INSERT = "insert into outbox_events (aggregate_type, aggregate_id, event_type, " +
+            "payload, created) values (:aggregateType, :aggregateId, :eventType, :payload, :created)";
+
+    private static final String LOCK_BATCH = "select * from outbox_events order by id limit :size " +
+            "for update skip locked";
+
+    private static final String DELETE = "delete from outbox_events where id in (:ids)";
+
+    private static final RowMapper<OutboxEvent> EVENT = (row, rowNum) -> new OutboxEvent(
+            row.getLong("id"),
+            OutboxEventType.valueOf(row.getString("event_type")),
+            row.getLong("aggregate_id"),
+            row.getString("payload"),
+            row.getTimestamp("created").toLocalDateTime());
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void append(OutboxEventType type, long aggregateId, Object payload) {
+        appendAll(type, Map.of(aggregateId, payload));
+    }
+
+    /**
+     * Добавляет события одного типа одним JDBC-пакетом; ключ — id агрегата.
+     */
+    public void appendAll(OutboxEventType type, Map<Long, ?> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] rows = payloads.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("aggregateType", type.getAggregateType())
+                        .addValue("aggregateId", entry.getKey())
+                        .addValue("eventType", type.name())
+                        .addValue("payload", toJson(entry.getValue()))
+                        .addValue("created", now))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    /**
+     * Первые неопубликованные события; строки, которые публикует другой экземпляр, пропускаются.
+     */
+    public List<OutboxEvent> lockBatch(int size) {
+        return jdbcTemplate.query(LOCK_BATCH, Map.of("size", size), EVENT);
+    }
+
+    public void deleteAll(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            jdbcTemplate.update(DELETE, Map.of("ids", ids));
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + payload, e);
+        }
+    }
+}
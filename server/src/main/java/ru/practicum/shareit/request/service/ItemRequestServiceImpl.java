@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -10,32 +11,34 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.MetricsConfig;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceRegistry;
 
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository requestRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceRegistry userExistenceRegistry;
     private final ItemRepository itemRepository;
 
     @Transactional
     @Override
     public ItemRequestDto createRequest(Long userId, ItemRequestDto dto) {
         log.info("Создание нового запроса от пользователя с id ={}", userId);
-        User user = checkAndReturnUser(userId);
+        User user = userExistenceRegistry.getReference(userId);
         ItemRequest request = ItemRequestMapper.toItemRequest(dto, user);
         ItemRequest saved = requestRepository.save(request);
         log.info("Запрос успешно создан с id ={}", saved.getId());
@@ -48,7 +51,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<ItemRequestDto> getUserRequests(Long userId) {
         log.info("Получение запросов пользователя с id={}", userId);
 
-        checkAndReturnUser(userId);
+        userExistenceRegistry.checkExists(userId);
         List<ItemRequest> requests = requestRepository.findByRequesterIdOrderByCreatedDesc(userId);
         log.info("Найдено {} запросов для пользователя {}", requests.size(), userId);
         return getItemRequestsWithItems(requests);
@@ -58,7 +61,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<ItemRequestDto> getAllRequests(Long userId, int from, int size) {
         log.info("Получение запросов других пользователей, запрашивает пользователь с id ={}, from={}, size={}", userId, from, size);
 
-        checkAndReturnUser(userId);
+        userExistenceRegistry.checkExists(userId);
         List<ItemRequest> requests = requestRepository
                 .findByRequesterIdNotOrderByCreatedDesc(userId, PageRequest.of(from / size, size));
 
@@ -71,7 +74,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
         log.info("Получение запроса с id ={} для пользователя c id ={}", requestId, userId);
 
-        checkAndReturnUser(userId);
+        userExistenceRegistry.checkExists(userId);
         ItemRequest request = checkAndReturnItemRequest(requestId);
         log.info("Запрос с id={} успешно найден", requestId);
         ItemRequestDto dto = ItemRequestMapper.toItemRequestDto(request);
@@ -90,14 +93,6 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 });
     }
 
-    private User checkAndReturnUser(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> {
-                    log.warn("Пользователь с id={} не найден", userId);
-                    return new NotFoundException("Пользователь не найден");
-                });
-    }
-
     private List<ItemRequestDto> getItemRequestsWithItems(List<ItemRequest> requests) {
         List<Long> requestIds = requests.stream()
                 .map(ItemRequest::getId)
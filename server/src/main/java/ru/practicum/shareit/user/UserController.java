@@ -16,7 +16,7 @@ public class UserController {
 
     @PostMapping
     public UserDto createUser(@RequestBody UserDto userDto) {
-        log.info("/user POST Обработка запроса, userDto = {}", userDto.toString());
+        log.info("/user POST Обработка запроса, userDto = {}", userDto);
         return userService.createUser(userDto);
     }
 
@@ -28,7 +28,7 @@ public class UserController {
 
     @PatchMapping("/{userId}")
     public UserDto updateUser(@PathVariable Long userId, @RequestBody UserDto userDto) {
-        log.info("/user/{userId} PATCH Обработка запроса, userId = {}; userDto = {}", userId, userDto.toString());
+        log.info("/user/{userId} PATCH Обработка запроса, userId = {}; userDto = {}", userId, userDto);
         return userService.updateUser(userId, userDto);
     }
 
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Проверка существования пользователя без загрузки строки из БД.
+ * Подтвержденные id хранятся в кэше, поэтому повторная проверка того же пользователя
+ * не выполняет запросов. Отсутствующие id не запоминаются.
+ * <p>
+ * Кэш ограничен числом id ({@code shareit.users.known-max-size}) и временем жизни записи
+ * ({@code shareit.users.known-ttl}). Удаление на этом экземпляре убирает id сразу, а удаление на другом
+ * экземпляре он увидит не позже чем через время жизни. До тех пор запись со ссылкой на удаленного
+ * пользователя упадет на внешнем ключе, и GlobalHandler ответит 404, как при обычной проверке.
+ * <p>
+ * Удаление увеличивает счетчик поколений. Проверка запоминает id, только если за время запроса
+ * к БД не было удалений: иначе ответ, полученный до фиксации удаления, вернул бы удаленный id в кэш.
+ */
+@Slf4j
+@Component
+public class UserExistenceRegistry {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> knownIds;
+    private final Object lock = new Object();
+    private volatile long evictions;
+
+    public UserExistenceRegistry(UserRepository userRepository, MeterRegistry meterRegistry,
+                                 @Value("${shareit.users.known-max-size:100000}") long maxSize,
+                                 @Value("${shareit.users.known-ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.knownIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, knownIds, "known-users");
+    }
+
+    public void checkExists(long userId) {
+        if (knownIds.getIfPresent(userId) != null) {
+            return;
+        }
+        long generation = evictions;
+        if (!userRepository.existsById(userId)) {
+            log.warn("Пользователь с id={} не найден", userId);
+            throw new NotFoundException("Пользователь с id=" + userId + " не найден");
+        }
+        markIfNotEvicted(userId, generation);
+    }
+
+    public User getReference(long userId) {
+        checkExists(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
+    public void registerAfterCommit(long userId) {
+        afterCommit(() -> knownIds.put(userId, Boolean.TRUE));
+    }
+
+    public void evict(long userId) {
+        unmark(userId);
+        afterCommit(() -> unmark(userId));
+    }
+
+    private void markIfNotEvicted(long userId, long generation) {
+        synchronized (lock) {
+            if (generation == evictions) {
+                knownIds.put(userId, Boolean.TRUE);
+            }
+        }
+    }
+
+    private void unmark(long userId) {
+        synchronized (lock) {
+            evictions++;
+            knownIds.invalidate(userId);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
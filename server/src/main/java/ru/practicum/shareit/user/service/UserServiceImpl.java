@@ -1,10 +1,13 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.card.ItemCardStore;
+import ru.practicum.shareit.metrics.MetricsConfig;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.EmailValidationException;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -15,11 +18,14 @@ import java.util.Objects;
 
 @Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserExistenceRegistry userExistenceRegistry;
+    private final ItemCardStore itemCardStore;
 
     @Override
     @Transactional
@@ -27,6 +33,7 @@ public class UserServiceImpl implements UserService {
         checkEmail(userDto);
         User user = UserMapper.mapToNewUser(userDto);
         User saved = userRepository.save(user);
+        userExistenceRegistry.registerAfterCommit(saved.getId());
         log.info("Пользователь с email = {} успешно создан.", user.getEmail());
         return UserMapper.mapToUserDto(saved);
     }
@@ -51,8 +58,9 @@ public class UserServiceImpl implements UserService {
             user.setEmail(userDto.getEmail());
             log.debug("Изменено значение поля email на: {}.", user.getEmail());
         }
-        if (userDto.getName() != null) {
+        if (userDto.getName() != null && !userDto.getName().equals(user.getName())) {
             user.setName(userDto.getName());
+            itemCardStore.renameAuthor(userId, user.getName());
             log.debug("Изменено значение поля name на: {}.", user.getName());
         }
 
@@ -65,6 +73,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void deleteUser(Long userId) {
         userRepository.deleteById(userId);
+        userExistenceRegistry.evict(userId);
         log.info("User с id = {} удален.", userId);
     }
 
@@ -0,0 +1,12 @@
+-- Исходящие события: пишутся в той же транзакции, что и изменение бронирования, вещи или отзыва,
+-- и удаляются OutboxRelay после публикации.
+CREATE TABLE IF NOT EXISTS outbox_events
+(
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    aggregate_type VARCHAR(32)                             NOT NULL,
+    aggregate_id   BIGINT                                  NOT NULL,
+    event_type     VARCHAR(64)                             NOT NULL,
+    payload        TEXT                                    NOT NULL,
+    created        TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+);
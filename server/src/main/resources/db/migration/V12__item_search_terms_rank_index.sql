@@ -0,0 +1,4 @@
+-- Поиск читает совпадения только из индекса: (term, available) отбирает строки, weight и item_id
+-- берутся из него же, без обращения к таблице. Для запроса из одного слова порядок индекса совпадает
+-- с порядком выдачи, и страница читается без сортировки всех вещей с этим словом.
+CREATE INDEX IF NOT EXISTS ix_item_search_terms_rank ON item_search_terms (term, available, weight DESC, item_id);
@@ -0,0 +1,16 @@
+-- Журнал ленты бронирований: OutboxRelay, забравший событие бронирования, пишет его сюда в транзакции
+-- публикации, а каждый экземпляр сервера читает журнал по своему курсору и раздает события своим
+-- подписчикам. Строки старше shareit.feed.retention удаляются.
+CREATE TABLE IF NOT EXISTS booking_feed_events
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    event_id   BIGINT                                  NOT NULL,
+    event_type VARCHAR(64)                             NOT NULL,
+    booker_id  BIGINT                                  NOT NULL,
+    owner_id   BIGINT,
+    payload    TEXT                                    NOT NULL,
+    created    TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    CONSTRAINT pk_booking_feed_events PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_booking_feed_events_created ON booking_feed_events (created);
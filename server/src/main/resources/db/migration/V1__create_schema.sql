@@ -28,7 +28,7 @@ CREATE TABLE IF NOT EXISTS items
 
     CONSTRAINT pk_item PRIMARY KEY (id),
     CONSTRAINT fk_owner FOREIGN KEY (owner_id) REFERENCES users (id),
-    CONSTRAINT fk_request FOREIGN KEY (request_id) REFERENCES requests
+    CONSTRAINT fk_request FOREIGN KEY (request_id) REFERENCES requests (id)
 );
 
 CREATE TABLE IF NOT EXISTS bookings
@@ -39,7 +39,7 @@ CREATE TABLE IF NOT EXISTS bookings
     item_id    BIGINT,
     booker_id  BIGINT,
     status     VARCHAR(20)                             NOT NULL,
-    CONSTRAINT fk_item FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT fk_booker FOREIGN KEY (booker_id) REFERENCES users (id)
 );
 
@@ -49,11 +49,7 @@ CREATE TABLE IF NOT EXISTS comments
     text      TEXT                                    NOT NULL,
     item_id   BIGINT,
     author_id BIGINT,
-    created    TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-    CONSTRAINT fk_item FOREIGN KEY (item_id) REFERENCES items (id),
+    created   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT fk_comment_item FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT fk_author FOREIGN KEY (author_id) REFERENCES users (id)
 );
-
-
-
-
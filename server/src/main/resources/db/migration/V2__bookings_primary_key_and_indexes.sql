@@ -0,0 +1,14 @@
+ALTER TABLE bookings
+    ADD CONSTRAINT pk_booking PRIMARY KEY (id);
+
+-- Списки бронирований пользователя: booker_id + сортировка (start_date, id) DESC
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+-- Списки бронирований пользователя по статусу (WAITING, REJECTED)
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+
+-- Последнее/следующее одобренное бронирование вещи, проверка аренды перед отзывом,
+-- списки бронирований владельца (через items.owner_id -> bookings.item_id)
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id);
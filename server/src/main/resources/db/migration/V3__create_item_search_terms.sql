@@ -0,0 +1,14 @@
+-- Инвертированный индекс для поиска вещей: одна строка на (слово, вещь).
+-- weight: 2 за вхождение в название, 1 за вхождение в описание.
+-- available дублирует items.is_available, чтобы фильтр доступности выполнялся по индексу.
+CREATE TABLE IF NOT EXISTS item_search_terms
+(
+    term      VARCHAR(64) NOT NULL,
+    item_id   BIGINT      NOT NULL,
+    weight    INTEGER     NOT NULL,
+    available BOOLEAN     NOT NULL,
+    CONSTRAINT pk_item_search_term PRIMARY KEY (term, item_id),
+    CONSTRAINT fk_search_term_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS ix_item_search_terms_item ON item_search_terms (item_id);
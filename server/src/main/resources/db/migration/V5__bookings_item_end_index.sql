@@ -0,0 +1,4 @@
+-- Поиск свободных в интервале [start, end) вещей: для каждой найденной по тексту вещи проверяется
+-- отсутствие бронирования с end_date > start и start_date < end. Ведущий end_date ограничивает просмотр
+-- текущими и будущими бронированиями вещи, а не всей историей; индекс покрывающий, таблица не читается.
+CREATE INDEX IF NOT EXISTS ix_bookings_item_end ON bookings (item_id, end_date, start_date, status);
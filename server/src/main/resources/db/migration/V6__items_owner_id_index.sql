@@ -0,0 +1,5 @@
+-- Список вещей владельца страницами по id: (owner_id, id) отдает страницу без сортировки,
+-- курсор по id продолжает поиск по индексу вместо пропуска from строк.
+CREATE INDEX IF NOT EXISTS ix_items_owner_id ON items (owner_id, id);
+
+DROP INDEX IF EXISTS ix_items_owner;
@@ -0,0 +1,3 @@
+-- Последние отзывы вещи и постраничный список отзывов: item_id + сортировка (created, id) DESC,
+-- подсчет отзывов по вещам читает только индекс.
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created DESC, id DESC);
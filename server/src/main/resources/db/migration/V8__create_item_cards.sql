@@ -0,0 +1,20 @@
+-- Карточка вещи: поля вещи, число отзывов и последние отзывы в JSON. Поддерживается ItemCardStore
+-- при изменении вещи и добавлении отзыва, отдается эндпоинтами чтения вещей одной строкой.
+-- Удаление вещи удаляет и карточку.
+CREATE TABLE IF NOT EXISTS item_cards
+(
+    item_id         BIGINT       NOT NULL,
+    owner_id        BIGINT       NOT NULL,
+    name            VARCHAR(255) NOT NULL,
+    description     VARCHAR(512),
+    is_available    BOOLEAN      NOT NULL,
+    request_id      BIGINT,
+    comments_count  BIGINT       NOT NULL,
+    latest_comments TEXT         NOT NULL,
+
+    CONSTRAINT pk_item_cards PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_cards_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+-- Вещи владельца страницами по item_id
+CREATE INDEX IF NOT EXISTS ix_item_cards_owner ON item_cards (owner_id, item_id);
@@ -0,0 +1,182 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.timeline.ItemTimelineRegistry;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookingConcurrencyTest {
+
+    private static final int BOOKERS = 20;
+    private static final int ATTEMPTS = 500;
+    private static final int THREADS = 32;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    ItemTimelineRegistry itemTimelineRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from outbox_events");
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from item_search_terms");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        entityManagerFactory.getCache().evictAll();
+        itemTimelineRegistry.evictAll();
+    }
+
+    @Test
+    void parallelOverlappingApprovalsProduceNoDoubleBookingTest() throws Exception {
+        UserDto owner = createUser("owner");
+        ItemDto item = new ItemDto();
+        item.setName("drill");
+        item.setDescription("Drill for concurrency test");
+        item.setAvailable(true);
+        long itemId = itemService.addNewItem(owner.getId(), item).getId();
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookerIds.add(createUser("booker" + i).getId());
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new CopyOnWriteArrayList<>();
+        runConcurrently(ATTEMPTS, i -> {
+            BookingRequestDto request = new BookingRequestDto(itemId, base.plusMinutes(i % 50),
+                    base.plusHours(2).plusMinutes(i % 50));
+            bookingIds.add(bookingService.createBooking(bookerIds.get(i % BOOKERS), request).getId());
+        });
+        // ожидающие заявки на одни даты не мешают друг другу
+        assertThat(bookingIds).hasSize(ATTEMPTS);
+
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(ATTEMPTS, i -> {
+            try {
+                bookingService.approveBooking(owner.getId(), bookingIds.get(i), true);
+                approved.incrementAndGet();
+            } catch (BookingOverlapException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(approved.get()).isEqualTo(1);
+        assertThat(rejected.get()).isEqualTo(ATTEMPTS - 1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from bookings where item_id = ? " +
+                "and status = 'APPROVED'", Integer.class, itemId)).isEqualTo(1);
+        BookingRequestDto overlapping = new BookingRequestDto(itemId, base, base.plusHours(3));
+        assertThatThrownBy(() -> bookingService.createBooking(bookerIds.get(0), overlapping))
+                .isInstanceOf(BookingOverlapException.class);
+    }
+
+    @Test
+    void parallelApproveAndRejectChangeStatusOnceTest() throws Exception {
+        UserDto owner = createUser("owner");
+        UserDto booker = createUser("booker");
+        ItemDto item = new ItemDto();
+        item.setName("saw");
+        item.setDescription("Saw for concurrency test");
+        item.setAvailable(true);
+        long itemId = itemService.addNewItem(owner.getId(), item).getId();
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        for (int round = 0; round < ROUNDS; round++) {
+            BookingRequestDto request = new BookingRequestDto(itemId, base.plusDays(round),
+                    base.plusDays(round).plusHours(1));
+            long bookingId = bookingService.createBooking(booker.getId(), request).getId();
+
+            AtomicInteger changed = new AtomicInteger();
+            AtomicInteger refused = new AtomicInteger();
+            CountDownLatch startSignal = new CountDownLatch(1);
+            try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+                for (boolean approved : new boolean[]{true, false}) {
+                    executor.submit(() -> {
+                        startSignal.await();
+                        try {
+                            bookingService.approveBooking(owner.getId(), bookingId, approved);
+                            changed.incrementAndGet();
+                        } catch (IllegalArgumentException e) {
+                            refused.incrementAndGet();
+                        }
+                        return null;
+                    });
+                }
+                startSignal.countDown();
+            }
+
+            assertThat(changed.get()).isEqualTo(1);
+            assertThat(refused.get()).isEqualTo(1);
+        }
+        assertThat(jdbcTemplate.queryForObject("select count(*) from outbox_events where aggregate_type = " +
+                "'BOOKING' and event_type in ('BOOKING_APPROVED', 'BOOKING_REJECTED')", Integer.class))
+                .isEqualTo(ROUNDS);
+    }
+
+    private void runConcurrently(int attempts, IntConsumer attempt) throws Exception {
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < attempts; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    attempt.accept(index);
+                    return null;
+                }));
+            }
+            startSignal.countDown();
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private UserDto createUser(String name) {
+        UserDto user = new UserDto();
+        user.setName(name);
+        user.setEmail(name + "@concurrency.test");
+        return userService.createUser(user);
+    }
+}
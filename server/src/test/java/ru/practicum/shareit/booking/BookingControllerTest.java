@@ -92,7 +92,7 @@ class BookingControllerTest {
         BookingDto dto = new BookingDto();
         dto.setId(1L);
 
-        Mockito.when(bookingService.getBookingsByUser(anyLong(), anyString()))
+        Mockito.when(bookingService.getBookingsByUser(anyLong(), anyString(), anyInt(), anyInt(), any(), any()))
                 .thenReturn(List.of(dto));
 
         mockMvc.perform(get("/bookings")
@@ -101,7 +101,7 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L));
 
-        verify(bookingService).getBookingsByUser(123L, "ALL");
+        verify(bookingService).getBookingsByUser(123L, "ALL", 0, 10, null, null);
     }
 
     @Test
@@ -109,15 +109,18 @@ class BookingControllerTest {
         BookingDto dto = new BookingDto();
         dto.setId(1L);
 
-        Mockito.when(bookingService.getOwnerBookings(anyLong(), anyString()))
+        Mockito.when(bookingService.getOwnerBookings(anyLong(), anyString(), anyInt(), anyInt(), any(), any()))
                 .thenReturn(List.of(dto));
 
         mockMvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 123)
-                        .param("state", "ALL"))
+                        .param("state", "ALL")
+                        .param("size", "5")
+                        .param("cursorStart", "2030-01-01T10:00:00")
+                        .param("cursorId", "7"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L));
 
-        verify(bookingService).getOwnerBookings(123L, "ALL");
+        verify(bookingService).getOwnerBookings(123L, "ALL", 0, 5, LocalDateTime.of(2030, 1, 1, 10, 0), 7L);
     }
 }
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookingIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seedAndAnalyze() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)",
+                IntStream.rangeClosed(1, 50)
+                        .mapToObj(i -> new Object[]{i, "user" + i, "user" + i + "@example.com"})
+                        .toList());
+        jdbcTemplate.batchUpdate("insert into items (id, name, is_available, owner_id) values (?, ?, true, ?)",
+                IntStream.rangeClosed(1, 200)
+                        .mapToObj(i -> new Object[]{i, "item" + i, i % 50 + 1})
+                        .toList());
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                        "values (?, ?, ?, ?, ?, ?)",
+                IntStream.rangeClosed(1, 2000)
+                        .mapToObj(i -> new Object[]{i, now.plusHours(i - 1000), now.plusHours(i - 999),
+                                i % 200 + 1, i % 50 + 1, BookingStatus.values()[i % 4].name()})
+                        .toList());
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void bookingsPrimaryKeyExistsTest() {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.table_constraints " +
+                        "where table_name = 'bookings' and constraint_type = 'PRIMARY KEY'", Integer.class);
+
+        assertThat(count).isEqualTo(1);
+    }
+
+    @Test
+    void bookingIndexesExistTest() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select index_name from information_schema.indexes where table_name in ('bookings', 'items')",
+                String.class);
+
+        assertThat(indexes).contains("ix_bookings_booker_start", "ix_bookings_booker_status_start",
+                "ix_bookings_item_status_start", "ix_items_owner_id", "ix_bookings_item_end");
+    }
+
+    @Test
+    void bookerFutureListingUsesBookerStartIndexTest() {
+        String plan = explain("select * from bookings where booker_id = 1 and start_date > current_timestamp " +
+                "order by start_date desc, id desc");
+
+        assertThat(plan).contains("ix_bookings_booker_start");
+    }
+
+    @Test
+    void bookerStatusListingUsesBookerStatusIndexTest() {
+        String plan = explain("select * from bookings where booker_id = 1 and status = 'WAITING' " +
+                "order by start_date desc, id desc");
+
+        assertThat(plan).contains("ix_bookings_booker_status_start");
+    }
+
+    @Test
+    void nextApprovedBookingUsesItemStatusIndexTest() {
+        String plan = explain("select * from bookings where item_id = 1 and status = 'APPROVED' " +
+                "and start_date > current_timestamp order by start_date");
+
+        assertThat(plan).contains("ix_bookings_item_status_start");
+    }
+
+    @Test
+    void ownerItemsPageUsesOwnerIdIndexTest() {
+        String plan = explain("select * from items where owner_id = 1 and id > 100 order by id limit 10");
+
+        assertThat(plan).contains("ix_items_owner_id");
+    }
+
+    @Test
+    void ownerLastBookingsUseItemStatusIndexTest() {
+        String plan = explain("select b.* from bookings b join items i on i.id = b.item_id " +
+                "where i.owner_id = 1 and b.status = 'APPROVED' and b.start_date < current_timestamp " +
+                "order by b.start_date");
+
+        assertThat(plan).contains("ix_bookings_item_status_start");
+    }
+
+    @Test
+    void availabilityCheckUsesItemEndIndexTest() {
+        String plan = explain("select * from items i where not exists (select 1 from bookings b " +
+                "where b.item_id = i.id and b.end_date > current_timestamp " +
+                "and b.start_date < dateadd('DAY', 1, current_timestamp) and b.status in ('WAITING', 'APPROVED'))");
+
+        assertThat(plan).contains("ix_bookings_item_end");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+}
@@ -1,23 +1,36 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingListingMetrics;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.NotItemOwnerException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.metrics.MetricsConfig;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -35,6 +48,12 @@ public class BookingServiceTest {
     @Autowired
     BookingService bookingService;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
     private UserDto user1;
     private UserDto user2;
     private BookingRequestDto bookingRequestDto;
@@ -88,6 +107,53 @@ public class BookingServiceTest {
         assertThat(bookingDto.getEnd()).isEqualTo(prep.bookingRequestDto.getEnd());
     }
 
+    @Test
+    void createBookingOverlappingApprovedThrowsTest() {
+        BookingPreparation prep = prepareBookingDataTest();
+        long approved = bookingService.createBooking(prep.booker.getId(), prep.bookingRequestDto).getId();
+        bookingService.approveBooking(prep.owner.getId(), approved, true);
+
+        BookingRequestDto overlapping = new BookingRequestDto();
+        overlapping.setItemId(prep.item.getId());
+        overlapping.setStart(prep.bookingRequestDto.getStart().plusMinutes(30));
+        overlapping.setEnd(prep.bookingRequestDto.getEnd().plusMinutes(30));
+
+        assertThatThrownBy(() -> bookingService.createBooking(prep.booker.getId(), overlapping))
+                .isInstanceOf(BookingOverlapException.class);
+    }
+
+    @Test
+    void createBookingOverlappingWaitingSuccessTest() {
+        BookingPreparation prep = prepareBookingDataTest();
+        long first = bookingService.createBooking(prep.booker.getId(), prep.bookingRequestDto).getId();
+        BookingRequestDto overlapping = new BookingRequestDto(prep.item.getId(),
+                prep.bookingRequestDto.getStart().plusMinutes(30), prep.bookingRequestDto.getEnd().plusMinutes(30));
+
+        long second = bookingService.createBooking(prep.owner.getId(), overlapping).getId();
+
+        assertThat(bookingService.approveBooking(prep.owner.getId(), first, true).getStatus())
+                .isEqualTo(BookingStatus.APPROVED.toString());
+        assertThatThrownBy(() -> bookingService.approveBooking(prep.owner.getId(), second, true))
+                .isInstanceOf(BookingOverlapException.class);
+    }
+
+    @Test
+    void createAdjacentBookingSuccessTest() {
+        BookingPreparation prep = prepareBookingDataTest();
+        LocalDateTime start = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        prep.bookingRequestDto.setStart(start);
+        prep.bookingRequestDto.setEnd(start.plusHours(1));
+        bookingService.createBooking(prep.booker.getId(), prep.bookingRequestDto);
+
+        BookingRequestDto adjacent = new BookingRequestDto();
+        adjacent.setItemId(prep.item.getId());
+        adjacent.setStart(prep.bookingRequestDto.getEnd());
+        adjacent.setEnd(prep.bookingRequestDto.getEnd().plusHours(1));
+
+        assertThat(bookingService.createBooking(prep.booker.getId(), adjacent).getStatus())
+                .isEqualTo(BookingStatus.WAITING.toString());
+    }
+
     @Test
     void createBookingUnavailableItemThrowsTest() {
         BookingPreparation prep = prepareBookingDataTest();
@@ -132,6 +198,86 @@ public class BookingServiceTest {
                 .hasMessageContaining("Пользователь не является владельцем вещи");
     }
 
+    @Test
+    void createBookingsReportsOutcomePerRequestTest() {
+        BookingPreparation prep = prepareBookingDataTest();
+        LocalDateTime start = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        prep.bookingRequestDto.setStart(start);
+        prep.bookingRequestDto.setEnd(start.plusHours(1));
+        long approved = bookingService.createBooking(prep.booker.getId(), prep.bookingRequestDto).getId();
+        bookingService.approveBooking(prep.owner.getId(), approved, true);
+        BookingRequestDto overlapping = new BookingRequestDto(prep.item.getId(),
+                prep.bookingRequestDto.getStart().plusMinutes(30), prep.bookingRequestDto.getEnd().plusMinutes(30));
+        BookingRequestDto later = new BookingRequestDto(prep.item.getId(),
+                prep.bookingRequestDto.getEnd(), prep.bookingRequestDto.getEnd().plusHours(1));
+        BookingRequestDto laterOverlapping = new BookingRequestDto(prep.item.getId(),
+                later.getStart().plusMinutes(30), later.getEnd().plusMinutes(30));
+        BookingRequestDto missingItem = new BookingRequestDto(-1L,
+                prep.bookingRequestDto.getStart(), prep.bookingRequestDto.getEnd());
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(prep.booker.getId(),
+                List.of(overlapping, later, laterOverlapping, missingItem));
+
+        assertThat(results).extracting(BookingBatchResultDto::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(results).extracting(BookingBatchResultDto::getStatus).containsExactly(409, 200, 200, 404);
+        assertThat(results.get(0).getError()).contains("уже забронирована");
+        assertThat(results.get(3).getBooking()).isNull();
+
+        entityManager.clear();
+        BookingDto stored = bookingService.getBookingById(prep.booker.getId(), results.get(1).getBookingId());
+        assertThat(stored.getStatus()).isEqualTo(BookingStatus.WAITING.toString());
+        assertThat(stored.getItem().getId()).isEqualTo(prep.item.getId());
+        assertThatThrownBy(() -> bookingService.createBooking(prep.booker.getId(), overlapping))
+                .isInstanceOf(BookingOverlapException.class);
+    }
+
+    @Test
+    void approveBookingsReportsOutcomePerIdTest() {
+        BookingPreparation prep = prepareBookingDataTest();
+        LocalDateTime start = prep.bookingRequestDto.getStart();
+        ItemDto secondItem = itemService.addNewItem(prep.booker.getId(), itemDto);
+        List<BookingBatchResultDto> created = bookingService.createBookings(prep.booker.getId(), List.of(
+                prep.bookingRequestDto,
+                new BookingRequestDto(prep.item.getId(), start.plusHours(2), start.plusHours(3))));
+        long first = created.get(0).getBookingId();
+        long second = created.get(1).getBookingId();
+        long foreign = bookingService.createBooking(prep.owner.getId(),
+                new BookingRequestDto(secondItem.getId(), start, start.plusHours(1))).getId();
+        bookingService.approveBooking(prep.owner.getId(), second, false);
+
+        List<BookingBatchResultDto> results = bookingService.approveBookings(prep.owner.getId(),
+                List.of(first, second, foreign, -1L), true);
+
+        assertThat(results).extracting(BookingBatchResultDto::getBookingId).containsExactly(first, second, foreign,
+                -1L);
+        assertThat(results).extracting(BookingBatchResultDto::getStatus).containsExactly(200, 409, 403, 404);
+        assertThat(results.get(0).getBooking().getStatus()).isEqualTo(BookingStatus.APPROVED.toString());
+
+        entityManager.clear();
+        assertThat(bookingService.getBookingById(prep.owner.getId(), first).getStatus())
+                .isEqualTo(BookingStatus.APPROVED.toString());
+        assertThat(bookingService.getBookingById(prep.owner.getId(), second).getStatus())
+                .isEqualTo(BookingStatus.REJECTED.toString());
+        assertThat(bookingService.getBookingById(prep.owner.getId(), foreign).getStatus())
+                .isEqualTo(BookingStatus.WAITING.toString());
+    }
+
+    @Test
+    void approveBookingsRejectsOverlapWithinBatchTest() {
+        BookingPreparation prep = prepareBookingDataTest();
+        long first = bookingService.createBooking(prep.booker.getId(), prep.bookingRequestDto).getId();
+        UserDto thirdUser = new UserDto();
+        thirdUser.setName("user3");
+        thirdUser.setEmail("user3@example.com");
+        long third = userService.createUser(thirdUser).getId();
+        long second = bookingService.createBooking(third, prep.bookingRequestDto).getId();
+
+        List<BookingBatchResultDto> results = bookingService.approveBookings(prep.owner.getId(),
+                List.of(first, second), true);
+
+        assertThat(results).extracting(BookingBatchResultDto::getStatus).containsExactly(200, 409);
+    }
+
     @Test
     void getBookingByIdAsOwnerOrBookerSuccessTest() {
         BookingPreparation prep = prepareBookingDataTest();
@@ -167,7 +313,8 @@ public class BookingServiceTest {
 
         BookingDto createdBooking = bookingService.createBooking(prep.booker.getId(), prep.bookingRequestDto);
 
-        List<BookingDto> bookings = bookingService.getBookingsByUser(prep.booker.getId(), "ALL");
+        List<BookingDto> bookings = bookingService.getBookingsByUser(prep.booker.getId(), "ALL", 0, 10,
+                null, null);
 
         assertThat(bookings).isNotEmpty();
         assertThat(bookings.getFirst().getId()).isEqualTo(createdBooking.getId());
@@ -179,9 +326,127 @@ public class BookingServiceTest {
 
         BookingDto createdBooking = bookingService.createBooking(prep.booker.getId(), prep.bookingRequestDto);
 
-        List<BookingDto> bookings = bookingService.getOwnerBookings(prep.owner.getId(), "ALL");
+        List<BookingDto> bookings = bookingService.getOwnerBookings(prep.owner.getId(), "ALL", 0, 10,
+                null, null);
 
         assertThat(bookings).isNotEmpty();
         assertThat(bookings.getFirst().getId()).isEqualTo(createdBooking.getId());
     }
+
+    @Test
+    void getBookingsByUserPagedByOffsetTest() {
+        BookingPreparation prep = prepareBookingDataTest();
+        List<BookingDto> created = createFutureBookings(prep, 5);
+
+        List<BookingDto> firstPage = bookingService.getBookingsByUser(prep.booker.getId(), "ALL", 0, 2,
+                null, null);
+        List<BookingDto> secondPage = bookingService.getBookingsByUser(prep.booker.getId(), "FUTURE", 2, 2,
+                null, null);
+
+        assertThat(firstPage).extracting(BookingDto::getId)
+                .containsExactly(created.get(4).getId(), created.get(3).getId());
+        assertThat(secondPage).extracting(BookingDto::getId)
+                .containsExactly(created.get(2).getId(), created.get(1).getId());
+    }
+
+    @Test
+    void getOwnerBookingsPagedByCursorTest() {
+        BookingPreparation prep = prepareBookingDataTest();
+        List<BookingDto> created = createFutureBookings(prep, 5);
+
+        List<BookingDto> firstPage = bookingService.getOwnerBookings(prep.owner.getId(), "WAITING", 0, 2,
+                null, null);
+        BookingDto last = firstPage.getLast();
+        List<BookingDto> secondPage = bookingService.getOwnerBookings(prep.owner.getId(), "WAITING", 0, 2,
+                last.getStart(), last.getId());
+        List<BookingDto> lastPage = bookingService.getOwnerBookings(prep.owner.getId(), "WAITING", 0, 2,
+                secondPage.getLast().getStart(), secondPage.getLast().getId());
+
+        assertThat(secondPage).extracting(BookingDto::getId)
+                .containsExactly(created.get(2).getId(), created.get(1).getId());
+        assertThat(lastPage).extracting(BookingDto::getId)
+                .containsExactly(created.getFirst().getId());
+    }
+
+    @Test
+    void bookingListingsUseConstantNumberOfStatementsTest() {
+        BookingPreparation prep = prepareBookingDataTest();
+        for (int i = 0; i < 3; i++) {
+            UserDto booker = userService.createUser(new UserDto(null, "booker" + i, "booker" + i + "@example.com"));
+            ItemDto item = itemService.addNewItem(prep.owner.getId(),
+                    new ItemDto(null, "item" + i, "description" + i, true, null, null));
+            LocalDateTime start = LocalDateTime.now().plusDays(i + 1);
+            bookingService.createBooking(booker.getId(), new BookingRequestDto(item.getId(), start, start.plusHours(1)));
+        }
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<BookingDto> ownerBookings = bookingService.getOwnerBookings(prep.owner.getId(), "ALL", 0, 10,
+                null, null);
+
+        assertThat(ownerBookings).hasSize(3);
+        assertThat(ownerBookings).extracting(dto -> dto.getItem().getName())
+                .containsExactly("item2", "item1", "item0");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        // список собирается из проекции, сущности не загружаются ни из БД, ни из L2-кэша
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isZero();
+
+        entityManager.clear();
+        statistics.clear();
+        BookingDto booking = bookingService.getBookingById(prep.owner.getId(), ownerBookings.getFirst().getId());
+
+        assertThat(booking.getItem().getName()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedListingSkipsUserLookupTest() {
+        BookingPreparation prep = prepareBookingDataTest();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        bookingService.getBookingsByUser(prep.booker.getId(), "ALL", 0, 10, null, null);
+        statistics.clear();
+
+        bookingService.getBookingsByUser(prep.booker.getId(), "ALL", 0, 10, null, null);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThatThrownBy(() -> bookingService.getBookingsByUser(Long.MAX_VALUE, "ALL", 0, 10, null, null))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void bookingListingsAreMeteredTest() {
+        BookingPreparation prep = prepareBookingDataTest();
+        double ownerWaiting = listingCount("owner", "WAITING");
+        double bookerFuture = listingCount("booker", "FUTURE");
+
+        bookingService.getOwnerBookings(prep.owner.getId(), "waiting", 0, 10, null, null);
+        bookingService.getBookingsByUser(prep.booker.getId(), "FUTURE", 0, 10, null, null);
+
+        assertThat(listingCount("owner", "WAITING")).isEqualTo(ownerWaiting + 1);
+        assertThat(listingCount("booker", "FUTURE")).isEqualTo(bookerFuture + 1);
+        assertThat(meterRegistry.find(MetricsConfig.SERVICE_TIMER)
+                .tag("class", BookingServiceImpl.class.getName()).tag("method", "getOwnerBookings").timer())
+                .isNotNull()
+                .satisfies(timer -> assertThat(timer.count()).isPositive());
+        assertThat(meterRegistry.find("spring.data.repository.invocations")
+                .tag("repository", "BookingRepository")
+                .tag("method", "findOwnerListing").timer())
+                .isNotNull();
+    }
+
+    private double listingCount(String role, String state) {
+        return meterRegistry.get(BookingListingMetrics.LISTINGS_COUNTER)
+                .tag("role", role).tag("state", state).counter().count();
+    }
+
+    private List<BookingDto> createFutureBookings(BookingPreparation prep, int count) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        return IntStream.range(0, count)
+                .mapToObj(i -> new BookingRequestDto(prep.item.getId(), start.plusHours(i), start.plusHours(i + 1)))
+                .map(requestDto -> bookingService.createBooking(prep.booker.getId(), requestDto))
+                .toList();
+    }
 }
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.feed;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.outbox.OutboxRelay;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@ActiveProfiles("test")
+class BookingFeedTest {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private BookingFeedRegistry bookingFeedRegistry;
+
+    @Autowired
+    private BookingFeedProperties bookingFeedProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User booker;
+    private User stranger;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Владелец", "feed-owner@example.com"));
+        booker = userRepository.save(new User(null, "Арендатор", "feed-booker@example.com"));
+        stranger = userRepository.save(new User(null, "Посторонний", "feed-stranger@example.com"));
+        item = itemService.addNewItem(owner.getId(), new ItemDto(null, "Дрель", "Ударная", true, null, null));
+    }
+
+    @Test
+    void ownerAndBookerReceiveBookingChangesTest() throws Exception {
+        MockHttpServletResponse ownerFeed = subscribe(owner.getId());
+        MockHttpServletResponse bookerFeed = subscribe(booker.getId());
+        MockHttpServletResponse strangerFeed = subscribe(stranger.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto booking = bookingService.createBooking(booker.getId(),
+                new BookingRequestDto(item.getId(), start, start.plusDays(1)));
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+        outboxRelay.relay();
+        bookingFeedRegistry.poll();
+
+        String ownerEvents = awaitContent(ownerFeed, "event:BOOKING_APPROVED");
+        String bookerEvents = awaitContent(bookerFeed, "event:BOOKING_APPROVED");
+
+        assertThat(ownerEvents).contains("event:BOOKING_CREATED", "\"id\":" + booking.getId());
+        assertThat(ownerEvents.indexOf("BOOKING_CREATED")).isLessThan(ownerEvents.indexOf("BOOKING_APPROVED"));
+        assertThat(bookerEvents).contains("event:BOOKING_CREATED", "\"status\":\"APPROVED\"");
+        assertThat(strangerFeed.getContentAsString()).doesNotContain("BOOKING");
+    }
+
+    @Test
+    void eventsRelayedByAnotherInstanceReachSubscribersTest() throws Exception {
+        MockHttpServletResponse ownerFeed = subscribe(owner.getId());
+        MockHttpServletResponse bookerFeed = subscribe(booker.getId());
+        bookingFeedRegistry.poll();
+
+        // строку записал OutboxRelay другого экземпляра: этот экземпляр видит ее только в журнале
+        jdbcTemplate.update("insert into booking_feed_events (event_id, event_type, booker_id, owner_id, "
+                + "payload, created) values (?, ?, ?, ?, ?, ?)", 777_777L, "BOOKING_CREATED", booker.getId(),
+                owner.getId(), "{\"id\":777777}", LocalDateTime.now());
+
+        assertThat(bookingFeedRegistry.poll()).isEqualTo(1);
+        assertThat(awaitContent(ownerFeed, "id:777777")).contains("event:BOOKING_CREATED");
+        assertThat(awaitContent(bookerFeed, "id:777777")).contains("event:BOOKING_CREATED");
+        assertThat(bookingFeedRegistry.poll()).isZero();
+    }
+
+    @Test
+    void subscriptionsOverLimitCloseOldestTest() throws Exception {
+        int before = bookingFeedRegistry.subscriptionCount();
+
+        for (int i = 0; i <= bookingFeedProperties.getMaxSubscriptionsPerUser(); i++) {
+            subscribe(stranger.getId());
+        }
+
+        assertThat(bookingFeedRegistry.subscriptionCount() - before)
+                .isEqualTo(bookingFeedProperties.getMaxSubscriptionsPerUser());
+    }
+
+    private MockHttpServletResponse subscribe(long userId) throws Exception {
+        MvcResult result = mockMvc.perform(get("/bookings/events").header(USER_ID_HEADER, userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return result.getResponse();
+    }
+
+    private String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!response.getContentAsString().contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        return response.getContentAsString();
+    }
+}
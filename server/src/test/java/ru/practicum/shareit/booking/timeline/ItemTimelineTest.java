@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.timeline;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemTimelineTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final ItemTimeline timeline = new ItemTimeline();
+
+    @Test
+    void lastAndNextApprovedBookingsTest() {
+        timeline.put(slot(1, -3, -2, BookingStatus.APPROVED));
+        timeline.put(slot(2, -1, 1, BookingStatus.APPROVED));
+        timeline.put(slot(3, 2, 3, BookingStatus.WAITING));
+        timeline.put(slot(4, 4, 5, BookingStatus.APPROVED));
+
+        assertThat(timeline.lastStarted(now).bookingId()).isEqualTo(2);
+        assertThat(timeline.lastFinished(now).bookingId()).isEqualTo(1);
+        assertThat(timeline.next(now).bookingId()).isEqualTo(4);
+        assertThat(timeline.lastAndNext(now)).extracting(view -> view.getBookingId() + view.getKind())
+                .containsExactly("1LAST", "4NEXT");
+    }
+
+    @Test
+    void statusChangeReplacesBookingTest() {
+        timeline.put(slot(1, 2, 4, BookingStatus.WAITING));
+        assertThat(timeline.next(now)).isNull();
+
+        timeline.put(slot(1, 2, 4, BookingStatus.APPROVED));
+        assertThat(timeline.next(now).bookingId()).isEqualTo(1);
+
+        timeline.put(slot(1, 2, 4, BookingStatus.REJECTED));
+        assertThat(timeline.next(now)).isNull();
+    }
+
+    @Test
+    void finishedBookingsArePrunedExceptLastTest() {
+        timeline.put(slot(1, -10, -9, BookingStatus.APPROVED));
+        timeline.put(slot(2, -5, -4, BookingStatus.APPROVED));
+        timeline.put(slot(3, -3, -2, BookingStatus.WAITING));
+
+        assertThat(timeline.lastFinished(now).bookingId()).isEqualTo(2);
+        assertThat(timeline.lastStarted(now).bookingId()).isEqualTo(2);
+        assertThat(timeline.next(now)).isNull();
+    }
+
+    private TimelineSlot slot(long bookingId, int startHours, int endHours, BookingStatus status) {
+        return new TimelineSlot(1, bookingId, 10, hours(startHours), hours(endHours), status);
+    }
+
+    private LocalDateTime hours(int hours) {
+        return now.plusHours(hours);
+    }
+}
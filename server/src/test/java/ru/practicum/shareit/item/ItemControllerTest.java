@@ -6,6 +6,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -13,6 +14,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -46,7 +48,7 @@ class ItemControllerTest {
 
     private final ItemWithBookingsDto itemWithBookingsDto = new ItemWithBookingsDto(
             itemId, "Дрель", "Простая дрель", true, userId, null,
-            List.of(commentDto), null, null
+            List.of(commentDto), 1L, null, null
     );
 
     private final ItemDto updatedItemDto = new ItemDto(
@@ -55,7 +57,7 @@ class ItemControllerTest {
 
     @Test
     void getUsersItemsTest() throws Exception {
-        Mockito.when(itemService.getUsersItems(userId))
+        Mockito.when(itemService.getUsersItems(userId, 0, 10, null))
                 .thenReturn(List.of(itemWithBookingsDto));
 
         mockMvc.perform(get("/items")
@@ -83,7 +85,7 @@ class ItemControllerTest {
     void getItemsByTextTest() throws Exception {
         String text = "дрель";
 
-        Mockito.when(itemService.getItemsByText(userId, text))
+        Mockito.when(itemService.getItemsByText(userId, text, 0, 10))
                 .thenReturn(List.of(itemDto));
 
         mockMvc.perform(get("/items/search")
@@ -108,6 +110,21 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.description").value("Простая дрель"));
     }
 
+    @Test
+    void createItemForDeletedOwnerReturnsNotFoundTest() throws Exception {
+        // владелец удален на другом экземпляре, а этот еще считает его существующим
+        Mockito.when(itemService.addNewItem(eq(userId), any(ItemDto.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("ERROR: insert or update on table \"items\" violates foreign key "
+                                + "constraint \"fk_owner\"")));
+
+        mockMvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(itemDto)))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void updateItemTest() throws Exception {
         Mockito.when(itemService.updateItem(eq(userId), eq(itemId), any(ItemDto.class)))
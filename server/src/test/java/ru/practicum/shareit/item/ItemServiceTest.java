@@ -11,18 +11,24 @@ import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.NotItemOwnerException;
+import ru.practicum.shareit.item.card.ItemCardRebuilder;
+import ru.practicum.shareit.item.card.ItemCardStore;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
 import ru.practicum.shareit.item.exception.CommentBeforeBookingEndException;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -48,6 +54,15 @@ public class ItemServiceTest {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private ItemCardStore itemCardStore;
+
+    @Autowired
+    private ItemCardRebuilder itemCardRebuilder;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
     private User owner;
     private User booker;
     private Item item;
@@ -75,6 +90,8 @@ public class ItemServiceTest {
         item.setAvailable(true);
         item.setOwner(owner);
         item = itemRepository.save(item);
+        itemSearchIndex.index(item);
+        itemCardStore.insert(item);
     }
 
     @Test
@@ -138,20 +155,195 @@ public class ItemServiceTest {
 
     @Test
     void getUsersItemsTest() {
-        List<ItemWithBookingsDto> items = itemService.getUsersItems(owner.getId());
+        List<ItemWithBookingsDto> items = itemService.getUsersItems(owner.getId(), 0, 10, null);
 
         assertThat(items).isNotEmpty();
         assertThat(items.getFirst().getId()).isEqualTo(item.getId());
     }
 
+    @Test
+    void getUsersItemsPagedByOffsetAndCursorTest() {
+        List<Long> itemIds = new ArrayList<>(List.of(item.getId()));
+        for (int i = 0; i < 4; i++) {
+            Item saved = itemRepository.save(new Item(0, "Вещь " + i, "Описание " + i, true, owner, null));
+            itemCardStore.insert(saved);
+            itemIds.add(saved.getId());
+        }
+
+        List<ItemWithBookingsDto> firstPage = itemService.getUsersItems(owner.getId(), 0, 2, null);
+        List<ItemWithBookingsDto> byOffset = itemService.getUsersItems(owner.getId(), 2, 2, null);
+        List<ItemWithBookingsDto> byCursor = itemService.getUsersItems(owner.getId(), 0, 2,
+                firstPage.getLast().getId());
+        List<ItemWithBookingsDto> lastPage = itemService.getUsersItems(owner.getId(), 0, 2,
+                byCursor.getLast().getId());
+
+        assertThat(firstPage).extracting(ItemWithBookingsDto::getId).containsExactlyElementsOf(itemIds.subList(0, 2));
+        assertThat(byCursor).extracting(ItemWithBookingsDto::getId).containsExactlyElementsOf(itemIds.subList(2, 4));
+        assertThat(byOffset).extracting(ItemWithBookingsDto::getId).containsExactlyElementsOf(itemIds.subList(2, 4));
+        assertThat(lastPage).extracting(ItemWithBookingsDto::getId).containsExactly(itemIds.getLast());
+    }
+
+    @Test
+    void getUsersItemsPicksLastAndNextApprovedBookingsTest() {
+        LocalDateTime now = LocalDateTime.now();
+        saveBooking(now.minusDays(10), now.minusDays(9), BookingStatus.APPROVED);
+        Booking last = saveBooking(now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        saveBooking(now.minusDays(2), now.minusDays(1), BookingStatus.REJECTED);
+        saveBooking(now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        Booking next = saveBooking(now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED);
+        saveBooking(now.plusDays(5), now.plusDays(6), BookingStatus.APPROVED);
+
+        Comment comment = new Comment(null, "Хорошая дрель", item, booker, now);
+        commentRepository.save(comment);
+        itemCardRebuilder.rebuild();
+
+        ItemWithBookingsDto dto = itemService.getUsersItems(owner.getId(), 0, 10, null).getFirst();
+
+        assertThat(dto.getLastBooking().getId()).isEqualTo(last.getId());
+        assertThat(dto.getNextBooking().getId()).isEqualTo(next.getId());
+        assertThat(dto.getNextBooking().getBookerId()).isEqualTo(booker.getId());
+        assertThat(dto.getComments()).extracting(CommentDto::getAuthorName).containsExactly(booker.getName());
+    }
+
+    private Booking saveBooking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(new Booking(0, start, end, item, booker, status));
+    }
+
+    @Test
+    void itemViewsCarryLatestCommentsAndCountTest() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 12; i++) {
+            commentRepository.save(new Comment(null, "Отзыв " + i, item, booker, now.minusHours(i)));
+        }
+        itemCardRebuilder.rebuild();
+
+        ItemWithBookingsDto byId = itemService.getItemById(booker.getId(), item.getId());
+        ItemWithBookingsDto listed = itemService.getUsersItems(owner.getId(), 0, 10, null).getFirst();
+
+        assertThat(byId.getCommentsCount()).isEqualTo(12);
+        assertThat(byId.getComments()).hasSize(10).extracting(CommentDto::getText)
+                .startsWith("Отзыв 0", "Отзыв 1").doesNotContain("Отзыв 10", "Отзыв 11");
+        assertThat(byId.getComments()).extracting(CommentDto::getAuthorName).containsOnly(booker.getName());
+        assertThat(listed.getCommentsCount()).isEqualTo(12);
+        assertThat(listed.getComments()).extracting(CommentDto::getId)
+                .containsExactlyElementsOf(byId.getComments().stream().map(CommentDto::getId).toList());
+    }
+
+    @Test
+    void getCommentsPagedByOffsetAndCursorTest() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            // Одинаковое время у пар отзывов: порядок внутри пары задает id.
+            commentRepository.save(new Comment(null, "Отзыв " + i, item, booker, now.minusHours(i / 2)));
+        }
+
+        List<CommentDto> firstPage = itemService.getComments(booker.getId(), item.getId(), 0, 2, null, null);
+        CommentDto last = firstPage.getLast();
+        List<CommentDto> byCursor = itemService.getComments(booker.getId(), item.getId(), 0, 2, last.getCreated(),
+                last.getId());
+        List<CommentDto> byOffset = itemService.getComments(booker.getId(), item.getId(), 2, 2, null, null);
+
+        assertThat(firstPage).extracting(CommentDto::getText).containsExactly("Отзыв 1", "Отзыв 0");
+        assertThat(byCursor).extracting(CommentDto::getText).containsExactly("Отзыв 3", "Отзыв 2");
+        assertThat(byOffset).extracting(CommentDto::getText).containsExactly("Отзыв 3", "Отзыв 2");
+        assertThatThrownBy(() -> itemService.getComments(booker.getId(), 9999L, 0, 2, null, null))
+                .isInstanceOf(NotFoundException.class);
+    }
+
     @Test
     void getItemsByTextTest() {
-        List<ItemDto> found = itemService.getItemsByText(owner.getId(), "дрель");
+        List<ItemDto> found = itemService.getItemsByText(owner.getId(), "дрель", 0, 10);
 
         assertThat(found).isNotEmpty();
         assertThat(found.getFirst().getName().toLowerCase()).contains("дрель");
     }
 
+    @Test
+    void getItemsByTextRanksNameMatchesFirstTest() {
+        ItemDto byDescription = itemService.addNewItem(owner.getId(),
+                new ItemDto(null, "Перфоратор", "Мощнее, чем дрель", true, null, null));
+        ItemDto byName = itemService.addNewItem(owner.getId(),
+                new ItemDto(null, "Дрель аккумуляторная", "Без провода", true, null, null));
+        itemService.addNewItem(owner.getId(),
+                new ItemDto(null, "Дрель сетевая", "Сломана", false, null, null));
+
+        List<ItemDto> found = itemService.getItemsByText(owner.getId(), "ДРЕЛЬ", 0, 10);
+        List<ItemDto> allTerms = itemService.getItemsByText(owner.getId(), "дрель аккумуляторная", 0, 10);
+        List<ItemDto> secondPage = itemService.getItemsByText(owner.getId(), "дрель", 2, 10);
+
+        assertThat(found).extracting(ItemDto::getId)
+                .containsExactly(item.getId(), byName.getId(), byDescription.getId());
+        assertThat(allTerms).extracting(ItemDto::getId).containsExactly(byName.getId());
+        assertThat(secondPage).extracting(ItemDto::getId).containsExactly(byDescription.getId());
+    }
+
+    @Test
+    void getItemsByTextMatchesWordPrefixesTest() {
+        ItemDto cordless = itemService.addNewItem(owner.getId(),
+                new ItemDto(null, "Дрель аккумуляторная", "Без провода", true, null, null));
+
+        assertThat(itemService.getItemsByText(owner.getId(), "аккум", 0, 10))
+                .extracting(ItemDto::getId).containsExactly(cordless.getId());
+        assertThat(itemService.getItemsByText(owner.getId(), "дре акку", 0, 10))
+                .extracting(ItemDto::getId).containsExactly(cordless.getId());
+        assertThat(itemService.getItemsByText(owner.getId(), "дре", 0, 10))
+                .extracting(ItemDto::getId).containsExactly(item.getId(), cordless.getId());
+    }
+
+    @Test
+    void getItemsByTextFallsBackToSubstringTest() {
+        ItemDto cordless = itemService.addNewItem(owner.getId(),
+                new ItemDto(null, "Дрель аккумуляторная", "Без провода", true, null, null));
+        itemService.addNewItem(owner.getId(),
+                new ItemDto(null, "Аккумулятор", "Сломан", false, null, null));
+
+        assertThat(itemService.getItemsByText(owner.getId(), "ккум", 0, 10))
+                .extracting(ItemDto::getId).containsExactly(cordless.getId());
+        assertThat(itemService.getItemsByText(owner.getId(), "др", 0, 10))
+                .extracting(ItemDto::getId).containsExactly(item.getId(), cordless.getId());
+        assertThat(itemService.getItemsByText(owner.getId(), "др", 1, 10))
+                .extracting(ItemDto::getId).containsExactly(cordless.getId());
+        assertThat(itemService.getItemsByText(owner.getId(), "дрель ккум", 0, 10))
+                .extracting(ItemDto::getId).containsExactly(cordless.getId());
+        assertThat(itemService.getItemsByText(owner.getId(), "ккум провод", 0, 10))
+                .extracting(ItemDto::getId).containsExactly(cordless.getId());
+        assertThat(itemService.getItemsByText(owner.getId(), "ккум сетевая", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void getItemsByTextReflectsUpdatedItemTest() {
+        ItemDto update = new ItemDto();
+        update.setName("Шуруповерт");
+        update.setAvailable(false);
+        itemService.updateItem(owner.getId(), item.getId(), update);
+
+        assertThat(itemService.getItemsByText(owner.getId(), "шуруповерт", 0, 10)).isEmpty();
+
+        update.setAvailable(true);
+        itemService.updateItem(owner.getId(), item.getId(), update);
+
+        assertThat(itemService.getItemsByText(owner.getId(), "шуруповерт", 0, 10))
+                .extracting(ItemDto::getId).containsExactly(item.getId());
+    }
+
+    @Test
+    void getAvailableItemsByTextSkipsBookedItemsTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        ItemDto other = itemService.addNewItem(owner.getId(),
+                new ItemDto(null, "Дрель ударная", "Свободна", true, null, null));
+        saveBooking(start, start.plusDays(2), BookingStatus.APPROVED);
+        Item otherItem = itemRepository.findById(other.getId()).get();
+        bookingRepository.save(new Booking(0, start, start.plusDays(2), otherItem, booker, BookingStatus.REJECTED));
+        bookingRepository.save(new Booking(0, start, start.plusDays(2), otherItem, booker, BookingStatus.WAITING));
+
+        assertThat(itemService.getAvailableItemsByText(owner.getId(), "дрель", start.plusDays(1), start.plusDays(3),
+                0, 10)).extracting(ItemDto::getId).containsExactly(other.getId());
+        assertThat(itemService.getAvailableItemsByText(owner.getId(), "дрель", start.plusDays(2), start.plusDays(3),
+                0, 10)).extracting(ItemDto::getId).containsExactly(item.getId(), other.getId());
+        assertThat(itemService.getAvailableItemsByText(owner.getId(), "дрель", start.plusDays(2), start.plusDays(3),
+                1, 10)).extracting(ItemDto::getId).containsExactly(other.getId());
+    }
+
     @Test
     void deleteItemTest() {
         itemService.deleteItem(owner.getId(), item.getId());
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item.card;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingsDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+class ItemCardRebuilderTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemCardRebuilder itemCardRebuilder;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Владелец", "card-owner@example.com"));
+        booker = userRepository.save(new User(null, "Арендатор", "card-booker@example.com"));
+        item = itemService.addNewItem(owner.getId(), new ItemDto(null, "Дрель", "Ударная", true, null, null));
+        Item entity = itemRepository.findById(item.getId()).orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(new Booking(0, now.minusDays(3), now.minusDays(2), entity, booker,
+                BookingStatus.APPROVED));
+    }
+
+    @Test
+    void serviceWritesKeepCardsConsistentTest() {
+        for (int i = 0; i < ItemCardStore.LATEST_COMMENTS + 2; i++) {
+            itemService.addComment(booker.getId(), item.getId(), new CommentDto(null, "Отзыв " + i, null, null));
+        }
+        itemService.updateItem(owner.getId(), item.getId(), new ItemDto(null, "Шуруповерт", null, false, null, null));
+
+        ItemWithBookingsDto card = itemService.getItemById(booker.getId(), item.getId());
+
+        assertThat(card.getName()).isEqualTo("Шуруповерт");
+        assertThat(card.getAvailable()).isFalse();
+        assertThat(card.getCommentsCount()).isEqualTo(ItemCardStore.LATEST_COMMENTS + 2);
+        assertThat(card.getComments()).hasSize(ItemCardStore.LATEST_COMMENTS)
+                .first().extracting(CommentDto::getText).isEqualTo("Отзыв 11");
+        entityManager.flush();
+        assertThat(itemCardRebuilder.check().consistent()).isTrue();
+    }
+
+    @Test
+    void renamedAuthorIsShownInCardCommentsTest() {
+        itemService.addComment(booker.getId(), item.getId(), new CommentDto(null, "Отличная дрель", null, null));
+
+        userService.updateUser(booker.getId(), new UserDto(null, "Новое имя", null));
+
+        assertThat(itemService.getItemById(owner.getId(), item.getId()).getComments())
+                .extracting(CommentDto::getAuthorName).containsExactly("Новое имя");
+        entityManager.flush();
+        assertThat(itemCardRebuilder.check().consistent()).isTrue();
+    }
+
+    @Test
+    void checkFindsMissingAndStaleCardsAndRebuildRepairsThemTest() {
+        Item withoutCard = itemRepository.save(new Item(0, "Лопата", "Штыковая", true, owner, null));
+        commentRepository.save(new Comment(null, "Мимо карточки", itemRepository.findById(item.getId()).orElseThrow(),
+                booker, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)));
+        jdbcTemplate.update("update item_cards set name = 'Старое имя' where item_id = ?", item.getId());
+
+        ItemCardCheck broken = itemCardRebuilder.check();
+        itemCardRebuilder.rebuild();
+        ItemCardCheck repaired = itemCardRebuilder.check();
+
+        assertThat(broken.missing()).isEqualTo(1);
+        assertThat(broken.stale()).isEqualTo(1);
+        assertThat(broken.sample()).containsExactlyInAnyOrder(item.getId(), withoutCard.getId());
+        assertThat(repaired.consistent()).isTrue();
+        ItemWithBookingsDto card = itemService.getItemById(owner.getId(), item.getId());
+        assertThat(card.getName()).isEqualTo("Дрель");
+        assertThat(card.getComments()).extracting(CommentDto::getText).containsExactly("Мимо карточки");
+    }
+}
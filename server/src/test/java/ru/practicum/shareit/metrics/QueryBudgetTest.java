@@ -0,0 +1,205 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.booking.timeline.ItemTimelineRegistry;
+import ru.practicum.shareit.item.card.ItemCardRebuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Эндпоинты чтения на данных, где N+1 дал бы десятки запросов: превышение бюджета
+ * shareit.diagnostics.statement-budget в тестовом профиле завершает запрос исключением.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class QueryBudgetTest {
+
+    private static final long BASE_ID = 1_000_000;
+    private static final long OWNER = BASE_ID + 1;
+    private static final long REQUESTER = BASE_ID + 2;
+    private static final int ITEMS = 20;
+    private static final int BOOKERS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ItemTimelineRegistry itemTimelineRegistry;
+
+    @Autowired
+    private ItemCardRebuilder itemCardRebuilder;
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)",
+                IntStream.rangeClosed(1, BOOKERS + 2)
+                        .mapToObj(i -> new Object[]{BASE_ID + i, "user" + i, "budget" + i + "@example.com"})
+                        .toList());
+        jdbcTemplate.batchUpdate("insert into requests (id, description, requester_id, created) values (?, ?, ?, ?)",
+                IntStream.rangeClosed(1, ITEMS)
+                        .mapToObj(i -> new Object[]{BASE_ID + i, "request" + i, REQUESTER, now.minusHours(i)})
+                        .toList());
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, is_available, owner_id, request_id) " +
+                        "values (?, ?, ?, true, ?, ?)",
+                IntStream.rangeClosed(1, ITEMS)
+                        .mapToObj(i -> new Object[]{BASE_ID + i, "Дрель " + i, "описание", OWNER, BASE_ID + i})
+                        .toList());
+        jdbcTemplate.batchUpdate("insert into item_search_terms (term, item_id, weight, available) " +
+                        "values ('дрель', ?, 2, true)",
+                IntStream.rangeClosed(1, ITEMS).mapToObj(i -> new Object[]{BASE_ID + i}).toList());
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                        "values (?, ?, ?, ?, ?, 'APPROVED')",
+                IntStream.range(0, ITEMS * 3)
+                        .mapToObj(i -> new Object[]{BASE_ID + i, now.plusDays(i - ITEMS), now.plusDays(i - ITEMS).plusHours(1),
+                                BASE_ID + 1 + i % ITEMS, BASE_ID + 3 + i % BOOKERS})
+                        .toList());
+        jdbcTemplate.batchUpdate("insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)",
+                IntStream.range(0, ITEMS * 2)
+                        .mapToObj(i -> new Object[]{BASE_ID + i, "comment" + i, BASE_ID + 1 + i % ITEMS,
+                                BASE_ID + 3 + i % BOOKERS, now.minusDays(1)})
+                        .toList());
+        itemCardRebuilder.rebuild();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from comments where id >= ?", BASE_ID);
+        jdbcTemplate.update("delete from bookings where id >= ?", BASE_ID);
+        jdbcTemplate.update("delete from item_search_terms where item_id > ?", BASE_ID);
+        jdbcTemplate.update("delete from items where id > ?", BASE_ID);
+        jdbcTemplate.update("delete from requests where id > ?", BASE_ID);
+        jdbcTemplate.update("delete from users where id > ?", BASE_ID);
+        entityManagerFactory.getCache().evictAll();
+        itemTimelineRegistry.evictAll();
+    }
+
+    @Test
+    void readEndpointsStayWithinStatementBudgetTest() throws Exception {
+        List<String[]> endpoints = List.of(
+                new String[]{"/items", String.valueOf(OWNER)},
+                new String[]{"/items/" + (BASE_ID + 1), String.valueOf(OWNER)},
+                new String[]{"/items/search?text=дрель&size=" + ITEMS, String.valueOf(REQUESTER)},
+                new String[]{"/bookings/owner?state=ALL&size=" + ITEMS * 3, String.valueOf(OWNER)},
+                new String[]{"/bookings?state=ALL&size=" + ITEMS, String.valueOf(BASE_ID + 3)},
+                new String[]{"/requests", String.valueOf(REQUESTER)},
+                new String[]{"/requests/all?size=" + ITEMS, String.valueOf(OWNER)},
+                new String[]{"/requests/" + (BASE_ID + 1), String.valueOf(OWNER)});
+
+        for (String[] endpoint : endpoints) {
+            mockMvc.perform(get(endpoint[0]).header("X-Sharer-User-Id", endpoint[1]))
+                    .andExpect(status().isOk());
+        }
+
+        DistributionSummary ownerItems = meterRegistry.get(QueryDiagnosticsFilter.STATEMENTS_SUMMARY)
+                .tag("method", "GET").tag("uri", "/items").summary();
+        assertThat(ownerItems.count()).isPositive();
+        assertThat(ownerItems.max()).isLessThanOrEqualTo(10);
+        // поиск обращается к БД только через JdbcTemplate
+        DistributionSummary search = meterRegistry.get(QueryDiagnosticsFilter.STATEMENTS_SUMMARY)
+                .tag("method", "GET").tag("uri", "/items/search").summary();
+        assertThat(search.max()).isPositive();
+    }
+
+    @Test
+    void ownerItemViewReadsBookingsFromTimelineTest() throws Exception {
+        String itemUri = "/items/" + (BASE_ID + 2);
+        DistributionSummary itemStatements = meterRegistry.summary(QueryDiagnosticsFilter.STATEMENTS_SUMMARY,
+                "method", "GET", "uri", "/items/{itemId}");
+
+        double before = itemStatements.totalAmount();
+        mockMvc.perform(get(itemUri).header("X-Sharer-User-Id", String.valueOf(OWNER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastBooking.id").value(BASE_ID + 1))
+                .andExpect(jsonPath("$.nextBooking.id").value(BASE_ID + 21));
+        double coldStatements = itemStatements.totalAmount() - before;
+
+        before = itemStatements.totalAmount();
+        mockMvc.perform(get(itemUri).header("X-Sharer-User-Id", String.valueOf(OWNER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextBooking.id").value(BASE_ID + 21));
+        double warmStatements = itemStatements.totalAmount() - before;
+
+        assertThat(warmStatements).isLessThan(coldStatements);
+    }
+
+    @Test
+    void ownerItemListingTakesOneStatementWithWarmTimelinesTest() throws Exception {
+        DistributionSummary ownerItems = meterRegistry.summary(QueryDiagnosticsFilter.STATEMENTS_SUMMARY,
+                "method", "GET", "uri", "/items");
+        mockMvc.perform(get("/items?size=" + ITEMS).header("X-Sharer-User-Id", String.valueOf(OWNER)))
+                .andExpect(status().isOk());
+
+        double before = ownerItems.totalAmount();
+        mockMvc.perform(get("/items?size=" + ITEMS).header("X-Sharer-User-Id", String.valueOf(OWNER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ITEMS))
+                .andExpect(jsonPath("$[1].lastBooking.id").value(BASE_ID + 1))
+                .andExpect(jsonPath("$[1].nextBooking.id").value(BASE_ID + 21))
+                .andExpect(jsonPath("$[1].comments.length()").value(2));
+
+        // карточки вещей с отзывами читаются одним запросом, последнее/следующее бронирование — из хронологии
+        assertThat(ownerItems.totalAmount() - before).isEqualTo(1);
+    }
+
+    @Test
+    void statementBudgetViolationFailsRequestTest() {
+        QueryDiagnosticsProperties properties = new QueryDiagnosticsProperties();
+        properties.setStatementBudget(2);
+        properties.setFailOnViolation(true);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        QueryDiagnosticsFilter filter = new QueryDiagnosticsFilter(properties, registry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items/{itemId}");
+
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain(new jakarta.servlet.http.HttpServlet() {
+                    @Override
+                    protected void service(jakarta.servlet.http.HttpServletRequest req,
+                                           jakarta.servlet.http.HttpServletResponse resp) {
+                        IntStream.rangeClosed(1, 3).forEach(i ->
+                                jdbcTemplate.queryForList("select * from comments where item_id = ?", i));
+                    }
+                })))
+                .isInstanceOf(QueryBudgetExceededException.class);
+        assertThat(registry.get(QueryDiagnosticsFilter.VIOLATIONS_COUNTER)
+                .tag("uri", "/items/{itemId}").tag("reason", "statements").counter().count()).isEqualTo(1);
+        assertThat(QueryDiagnosticsFilter.describe(List.of("select * from items where id in (?, ?)",
+                "select * from comments where item_id = 1", "select * from comments where item_id = 2")))
+                .startsWith("  2 x select * from comments where item_id = ?");
+    }
+}
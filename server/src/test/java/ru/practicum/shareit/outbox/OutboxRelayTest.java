@@ -0,0 +1,123 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class OutboxRelayTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    private User owner;
+    private User booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Владелец", "outbox-owner@example.com"));
+        booker = userRepository.save(new User(null, "Арендатор", "outbox-booker@example.com"));
+        item = itemService.addNewItem(owner.getId(), new ItemDto(null, "Дрель", "Ударная", true, null, null));
+    }
+
+    @Test
+    void serviceWritesArePublishedInOrderAndRemovedTest() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto booking = bookingService.createBooking(booker.getId(),
+                new BookingRequestDto(item.getId(), start, start.plusDays(1)));
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+        itemService.updateItem(owner.getId(), item.getId(), new ItemDto(null, "Шуруповерт", null, null, null, null));
+
+        outboxRelay.relay();
+
+        List<OutboxEvent> events = applicationEvents.stream(OutboxEvent.class)
+                .filter(event -> event.aggregateId() == item.getId() && event.type().getAggregateType().equals("ITEM")
+                        || event.aggregateId() == booking.getId() && event.type().getAggregateType().equals("BOOKING"))
+                .toList();
+        assertThat(events).extracting(OutboxEvent::type).containsExactly(OutboxEventType.ITEM_CREATED,
+                OutboxEventType.BOOKING_CREATED, OutboxEventType.BOOKING_APPROVED, OutboxEventType.ITEM_UPDATED);
+        assertThat(objectMapper.readValue(events.get(2).payload(), BookingDto.class).getStatus())
+                .isEqualTo("APPROVED");
+        assertThat(objectMapper.readValue(events.get(3).payload(), ItemDto.class).getName()).isEqualTo("Шуруповерт");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from outbox_events", Long.class)).isZero();
+    }
+
+    @Test
+    void failedSinkKeepsEventsForRetryTest() {
+        OutboxRelay failing = new OutboxRelay(outboxRepository, events -> {
+            throw new IllegalStateException("Брокер недоступен");
+        }, publisher, transactionTemplate, new OutboxProperties(), new SimpleMeterRegistry());
+
+        assertThatThrownBy(failing::relay).isInstanceOf(IllegalStateException.class);
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from outbox_events " +
+                "where aggregate_id = ? and event_type = 'ITEM_CREATED'", Long.class, item.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void externalSinkEventsAreAlsoPublishedInProcessTest() {
+        List<OutboxEvent> sent = new ArrayList<>();
+        OutboxRelay external = new OutboxRelay(outboxRepository, sent::addAll, publisher, transactionTemplate,
+                new OutboxProperties(), new SimpleMeterRegistry());
+
+        external.relay();
+
+        assertThat(sent).extracting(OutboxEvent::aggregateId).contains(item.getId());
+        assertThat(applicationEvents.stream(OutboxEvent.class)).containsExactlyElementsOf(sent);
+    }
+}
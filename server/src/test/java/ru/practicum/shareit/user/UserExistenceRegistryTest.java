@@ -0,0 +1,56 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceRegistry;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class UserExistenceRegistryTest {
+
+    private final UserRepository userRepository = Mockito.mock(UserRepository.class);
+    private final UserExistenceRegistry registry = new UserExistenceRegistry(userRepository,
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
+    @Test
+    void knownUserIsCheckedOnceTest() {
+        Mockito.when(userRepository.existsById(1L)).thenReturn(true);
+
+        registry.checkExists(1L);
+        registry.checkExists(1L);
+
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void deleteDuringCheckIsNotOverwrittenTest() {
+        // удаление фиксируется, пока проверка ждет ответа БД, который еще видит строку
+        Mockito.when(userRepository.existsById(1L)).thenAnswer(invocation -> {
+            registry.evict(1L);
+            return true;
+        });
+
+        registry.checkExists(1L);
+        registry.checkExists(1L);
+
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void knownUserIsRecheckedAfterTtlTest() throws InterruptedException {
+        UserExistenceRegistry shortLived = new UserExistenceRegistry(userRepository,
+                new SimpleMeterRegistry(), 100, Duration.ofMillis(50));
+        Mockito.when(userRepository.existsById(1L)).thenReturn(true);
+
+        shortLived.checkExists(1L);
+        Thread.sleep(100);
+        shortLived.checkExists(1L);
+
+        verify(userRepository, times(2)).existsById(1L);
+    }
+}
@@ -1,10 +1,15 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -21,6 +26,12 @@ class UserServiceTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private UserDto userDto;
 
     @BeforeEach
@@ -99,4 +110,43 @@ class UserServiceTest {
         assertThatThrownBy(() -> userService.getUserById(created.getId()))
                 .isInstanceOf(NotFoundException.class);
     }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void getUserByIdServedFromSecondLevelCacheTest() {
+        UserDto created = userService.createUser(userDto);
+        userService.getUserById(created.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        try {
+            userService.getUserById(created.getId());
+            userService.getUserById(created.getId());
+
+            assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+            assertThat(meterRegistry.find("hibernate.second.level.cache.requests").tag("result", "hit").meters())
+                    .isNotEmpty();
+        } finally {
+            userService.deleteUser(created.getId());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void updateAndDeleteUserEvictCachedUserTest() {
+        UserDto created = userService.createUser(userDto);
+        userService.getUserById(created.getId());
+
+        UserDto update = new UserDto();
+        update.setName("Пётр");
+        userService.updateUser(created.getId(), update);
+
+        assertThat(userService.getUserById(created.getId()).getName()).isEqualTo("Пётр");
+
+        userService.deleteUser(created.getId());
+
+        assertThatThrownBy(() -> userService.getUserById(created.getId()))
+                .isInstanceOf(NotFoundException.class);
+    }
 }
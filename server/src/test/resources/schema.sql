@@ -1,73 +0,0 @@
-DROP TABLE IF EXISTS comments CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS requests CASCADE;
-DROP TABLE IF EXISTS users CASCADE;
-
-CREATE TABLE users (
-    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    name VARCHAR(255) NOT NULL,
-    email VARCHAR(255) NOT NULL UNIQUE
-);
-
-CREATE TABLE requests (
-    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    description VARCHAR(512) NOT NULL,
-    requester_id BIGINT,
-    created TIMESTAMP NOT NULL,
-    CONSTRAINT fk_requester FOREIGN KEY (requester_id)
-        REFERENCES users(id)
-        ON UPDATE CASCADE
-        ON DELETE CASCADE
-);
-
-CREATE TABLE items (
-    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    name VARCHAR(255) NOT NULL,
-    description VARCHAR(512),
-    is_available BOOLEAN NOT NULL,
-    owner_id BIGINT,
-    request_id BIGINT,
-    CONSTRAINT fk_owner FOREIGN KEY (owner_id)
-        REFERENCES users(id)
-        ON UPDATE CASCADE
-        ON DELETE CASCADE,
-    CONSTRAINT fk_request FOREIGN KEY (request_id)
-        REFERENCES requests(id)
-        ON UPDATE CASCADE
-        ON DELETE CASCADE
-);
-
-CREATE TABLE bookings (
-    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    start_date TIMESTAMP,
-    end_date TIMESTAMP,
-    item_id BIGINT,
-    booker_id BIGINT,
-    status VARCHAR(20) NOT NULL,
-    CONSTRAINT fk_booking_item FOREIGN KEY (item_id)
-        REFERENCES items(id)
-        ON UPDATE CASCADE
-        ON DELETE CASCADE,
-    CONSTRAINT fk_booker FOREIGN KEY (booker_id)
-        REFERENCES users(id)
-        ON UPDATE CASCADE
-        ON DELETE CASCADE
-);
-
-CREATE TABLE comments (
-    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    text TEXT NOT NULL,
-    item_id BIGINT,
-    author_id BIGINT,
-    created TIMESTAMP NOT NULL,
-    CONSTRAINT fk_comment_item FOREIGN KEY (item_id)
-        REFERENCES items(id)
-        ON UPDATE CASCADE
-        ON DELETE CASCADE,
-    CONSTRAINT fk_comment_author FOREIGN KEY (author_id)
-        REFERENCES users(id)
-        ON UPDATE CASCADE
-        ON DELETE CASCADE
-);
-